@@ -0,0 +1,93 @@
+package se.fredin.gdxtensions.benchmark;
+
+import se.fredin.gdxtensions.collision.CollisionHandler;
+import se.fredin.gdxtensions.level.TiledMapLevel;
+import se.fredin.gdxtensions.object.weapon.Projectile;
+import se.fredin.gdxtensions.utils.ScreenType;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A level loaded from a TMX map and filled with synthetic {@link BenchmarkMover}s and {@link Projectile}s.
+ * Projectiles that hit a block or leave the map are fired again from a random position, so the load stays constant.
+ * Everything random comes from {@link MathUtils#random}, seed it for repeatable runs.
+ * @author Johan Fredin
+ *
+ */
+public class BenchmarkLevel extends TiledMapLevel<BenchmarkScreen> {
+	
+	private static final float PROJECTILE_SPEED = 600f;
+	
+	private Array<BenchmarkMover> movers;
+	private Array<Projectile> projectiles;
+	
+	/**
+	 * Construct a new {@link BenchmarkLevel}
+	 * @param levelName the path of a loaded .tmx map with "hard-blocks" and "soft-blocks" object layers
+	 * @param screen the screen giving the level its camera and sprite batch
+	 * @param moverCount the amount of movers to spawn
+	 * @param projectileCount the amount of projectiles to keep flying
+	 */
+	public BenchmarkLevel(String levelName, BenchmarkScreen screen, int moverCount, int projectileCount) {
+		super(levelName, screen);
+		this.collisionHandler = new CollisionHandler(tiledMapUtils);
+		this.movers = new Array<>(moverCount);
+		for(int i = 0; i < moverCount; i++) {
+			float speed = MathUtils.random(40f, 120f) * (MathUtils.randomBoolean() ? 1 : -1);
+			movers.add(new BenchmarkMover(MathUtils.random(mapWidth - 16f), mapHeight - 32f, speed, collisionHandler));
+		}
+		this.projectiles = new Array<>(projectileCount);
+		for(int i = 0; i < projectileCount; i++) {
+			Projectile projectile = new Projectile(new Vector2(), collisionHandler, 4f, 4f);
+			fire(projectile);
+			projectiles.add(projectile);
+		}
+	}
+	
+	private void fire(Projectile projectile) {
+		projectile.setPosition(MathUtils.random(mapWidth), MathUtils.random(mapHeight));
+		projectile.getBounds().setPosition(projectile.getPosition());
+		float angle = MathUtils.random(MathUtils.PI2);
+		projectile.setVelocity(MathUtils.cos(angle) * PROJECTILE_SPEED, MathUtils.sin(angle) * PROJECTILE_SPEED);
+		projectile.setShootASAP(true);
+	}
+	
+	@Override
+	public void tick(float deltatime) {
+		for(int i = 0; i < movers.size; i++) {
+			movers.get(i).tick(deltatime);
+		}
+		for(int i = 0; i < projectiles.size; i++) {
+			Projectile projectile = projectiles.get(i);
+			projectile.tick(deltatime);
+			Vector2 position = projectile.getPosition();
+			if(projectile.isCollidedWith() || position.x < 0 || position.y < 0 || position.x > mapWidth || position.y > mapHeight) {
+				fire(projectile);
+			}
+		}
+	}
+	
+	@Override
+	public void render(SpriteBatch batch) {}
+	
+	@Override
+	public void switchLevel() {}
+	
+	@Override
+	public void restart(boolean allowedToShowAdd) {}
+	
+	@Override
+	public void end(ScreenType screenToGoTo, boolean allowedToShowAdd) {}
+	
+	public Array<BenchmarkMover> getMovers() {
+		return movers;
+	}
+	
+	public Array<Projectile> getProjectiles() {
+		return projectiles;
+	}
+
+}
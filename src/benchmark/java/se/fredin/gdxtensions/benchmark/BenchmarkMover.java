@@ -0,0 +1,46 @@
+package se.fredin.gdxtensions.benchmark;
+
+import se.fredin.gdxtensions.collision.CollisionHandler;
+import se.fredin.gdxtensions.object.RichGameObject;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * A synthetic {@link RichGameObject} walking back and forth under gravity, colliding with the blocks of the level
+ * the same way a player or an enemy would
+ * @author Johan Fredin
+ *
+ */
+public class BenchmarkMover extends RichGameObject {
+	
+	private final Vector2 newPosition = new Vector2();
+	
+	public BenchmarkMover(float x, float y, float speed, CollisionHandler collisionHandler) {
+		super(new Vector2(x, y), collisionHandler, 16f, 24f);
+		this.velocity.x = speed;
+	}
+	
+	@Override
+	public void tick(float deltaTime) {
+		if(!onGround) {
+			gravity = Math.max(-TERMINAL_VELOCITY, gravity - ACCELERATION * deltaTime);
+		} else {
+			gravity = 0f;
+		}
+		newPosition.set(position.x + velocity.x * deltaTime, position.y + gravity * deltaTime);
+		float x = position.x;
+		tryMove(newPosition);
+		if(position.x == x) {
+			// Walked into a wall
+			velocity.x = -velocity.x;
+		}
+	}
+	
+	@Override
+	public void render(SpriteBatch batch) {}
+	
+	@Override
+	public void dispose() {}
+
+}
@@ -0,0 +1,21 @@
+package se.fredin.gdxtensions.benchmark;
+
+import se.fredin.gdxtensions.screen.BaseScreen;
+
+import com.badlogic.gdx.Game;
+
+/**
+ * A screen that never renders, only there to give the benchmarked level a camera and a sprite batch
+ * @author Johan Fredin
+ *
+ */
+public class BenchmarkScreen extends BaseScreen {
+	
+	public BenchmarkScreen(Game game) {
+		super(game);
+	}
+	
+	@Override
+	public void render(float delta) {}
+
+}
@@ -0,0 +1,106 @@
+package se.fredin.gdxtensions.benchmark;
+
+import se.fredin.gdxtensions.assetmanagement.Assets;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Measures the cost of ticking a level without a window or a GPU, so it runs on CI machines.
+ * Boots the libGDX headless backend, loads a TMX map through {@link Assets#loadTileMap(String)} into a {@link BenchmarkLevel}
+ * filled with synthetic movers and projectiles, ticks it at a fixed step and prints ticks per second, 
+ * p50/p99 tick time and allocation rate. Run with <code>gradle benchmark</code>, options:
+ * <pre>
+ * --map path        the .tmx map to load, default {@value #DEFAULT_MAP}
+ * --movers n        the amount of movers, default 500
+ * --projectiles n   the amount of projectiles, default 2000
+ * --warmup n        the amount of ticks before measuring, default 2000
+ * --ticks n         the amount of ticks to measure, default 5000
+ * --seed n          the seed of the random generator, default 1
+ * </pre>
+ * @author Johan Fredin
+ *
+ */
+public class HeadlessBenchmark extends ApplicationAdapter {
+	
+	/** The map bundled with the benchmarks. Value={@value #DEFAULT_MAP} */
+	public static final String DEFAULT_MAP = "benchmark/level.tmx";
+	private static final float STEP_TIME = 1f / 60f;
+	
+	private String map = DEFAULT_MAP;
+	private int moverCount = 500;
+	private int projectileCount = 2000;
+	private int warmupTicks = 2000;
+	private int ticks = 5000;
+	private long seed = 1L;
+	
+	public static void main(String[] args) {
+		HeadlessBenchmark benchmark = new HeadlessBenchmark();
+		for(int i = 0; i + 1 < args.length; i += 2) {
+			String value = args[i + 1];
+			switch(args[i]) {
+			case "--map":
+				benchmark.map = value;
+				break;
+			case "--movers":
+				benchmark.moverCount = Integer.parseInt(value);
+				break;
+			case "--projectiles":
+				benchmark.projectileCount = Integer.parseInt(value);
+				break;
+			case "--warmup":
+				benchmark.warmupTicks = Integer.parseInt(value);
+				break;
+			case "--ticks":
+				benchmark.ticks = Integer.parseInt(value);
+				break;
+			case "--seed":
+				benchmark.seed = Long.parseLong(value);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+		HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+		// Tick as fast as the benchmark wants, not at a frame rate
+		config.renderInterval = -1f;
+		new HeadlessApplication(benchmark, config);
+	}
+	
+	@Override
+	public void create() {
+		HeadlessGL.install();
+		MathUtils.random.setSeed(seed);
+		Assets.getInstance().loadTileMap(map);
+		BenchmarkScreen screen = new BenchmarkScreen(new Game() {
+			@Override
+			public void create() {}
+		});
+		BenchmarkLevel level = new BenchmarkLevel(map, screen, moverCount, projectileCount);
+		
+		for(int i = 0; i < warmupTicks; i++) {
+			level.tick(STEP_TIME);
+		}
+		TickStats stats = new TickStats(ticks);
+		stats.begin();
+		for(int i = 0; i < ticks; i++) {
+			long start = System.nanoTime();
+			level.tick(STEP_TIME);
+			stats.add(System.nanoTime() - start);
+		}
+		stats.end();
+		
+		System.out.println("HeadlessBenchmark\n" +
+						   "map=" + map + "\n" +
+						   "movers=" + moverCount + "\n" +
+						   "projectiles=" + projectileCount + "\n" +
+						   stats);
+		level.dispose();
+		Gdx.app.exit();
+	}
+
+}
@@ -0,0 +1,51 @@
+package se.fredin.gdxtensions.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+
+/**
+ * A {@link GL20} that does nothing, so classes creating GL resources in their constructors like
+ * {@link com.badlogic.gdx.graphics.g2d.SpriteBatch} can be created on the headless backend, 
+ * which has no GPU and leaves {@link Gdx#gl} null. Creating objects succeeds and shaders always compile, 
+ * everything else is ignored.
+ * @author Johan Fredin
+ *
+ */
+public class HeadlessGL implements InvocationHandler {
+	
+	/**
+	 * Sets {@link Gdx#gl} and {@link Gdx#gl20} to a {@link GL20} that does nothing, unless they are already set
+	 */
+	public static void install() {
+		if(Gdx.gl20 == null) {
+			GL20 gl = (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[] { GL20.class }, new HeadlessGL());
+			Gdx.gl = Gdx.gl20 = gl;
+		}
+	}
+	
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		String name = method.getName();
+		if((name.equals("glGetShaderiv") && (Integer) args[1] == GL20.GL_COMPILE_STATUS) ||
+		   (name.equals("glGetProgramiv") && (Integer) args[1] == GL20.GL_LINK_STATUS)) {
+			((IntBuffer) args[2]).put(0, 1);
+			return null;
+		}
+		Class<?> returnType = method.getReturnType();
+		if(returnType == int.class) {
+			// Object names must not be 0, which means that creating them failed
+			return name.startsWith("glCreate") || name.startsWith("glGen") ? 1 : 0;
+		} else if(returnType == boolean.class) {
+			return false;
+		} else if(returnType == String.class) {
+			return "";
+		}
+		return null;
+	}
+
+}
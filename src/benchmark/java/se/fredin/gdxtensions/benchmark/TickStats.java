@@ -0,0 +1,110 @@
+package se.fredin.gdxtensions.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Measures the time and allocations of a run of ticks. Allocations are read from the HotSpot thread MX bean and
+ * only count the calling thread, they are reported as -1 on JVMs that do not support it.
+ * @author Johan Fredin
+ *
+ */
+public class TickStats {
+	
+	private long[] tickNanos;
+	private int count;
+	private long startNanos, totalNanos;
+	private long startBytes, allocatedBytes;
+	
+	/**
+	 * Construct a new {@link TickStats}
+	 * @param ticks the amount of ticks that will be measured
+	 */
+	public TickStats(int ticks) {
+		this.tickNanos = new long[ticks];
+	}
+	
+	/**
+	 * Starts measuring, call right before the first tick
+	 */
+	public void begin() {
+		this.count = 0;
+		this.startBytes = allocatedBytes();
+		this.startNanos = System.nanoTime();
+	}
+	
+	/**
+	 * Records the time of one tick
+	 * @param nanos the time the tick took in nanoseconds
+	 */
+	public void add(long nanos) {
+		tickNanos[count++] = nanos;
+	}
+	
+	/**
+	 * Stops measuring, call right after the last tick
+	 */
+	public void end() {
+		this.totalNanos = System.nanoTime() - startNanos;
+		long endBytes = allocatedBytes();
+		this.allocatedBytes = startBytes < 0 || endBytes < 0 ? -1 : endBytes - startBytes;
+		Arrays.sort(tickNanos, 0, count);
+	}
+	
+	/**
+	 * @param percentile 0-100
+	 * @return the tick time in milliseconds that given share of the ticks were faster than or equal to
+	 */
+	public double getPercentileMillis(double percentile) {
+		if(count == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(percentile / 100 * count) - 1;
+		return tickNanos[Math.max(0, Math.min(count - 1, index))] / 1e6;
+	}
+	
+	/**
+	 * @return the amount of ticks per second of wall time
+	 */
+	public double getTicksPerSecond() {
+		return totalNanos == 0 ? 0 : count / (totalNanos / 1e9);
+	}
+	
+	/**
+	 * @return the bytes allocated per second of wall time, -1 if unknown
+	 */
+	public double getAllocatedBytesPerSecond() {
+		return allocatedBytes < 0 || totalNanos == 0 ? -1 : allocatedBytes / (totalNanos / 1e9);
+	}
+	
+	/**
+	 * @return the bytes allocated per tick, -1 if unknown
+	 */
+	public double getAllocatedBytesPerTick() {
+		return allocatedBytes < 0 || count == 0 ? -1 : (double) allocatedBytes / count;
+	}
+	
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if(bean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean hotSpotBean = (com.sun.management.ThreadMXBean) bean;
+			if(hotSpotBean.isThreadAllocatedMemorySupported() && hotSpotBean.isThreadAllocatedMemoryEnabled()) {
+				return hotSpotBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return -1;
+	}
+	
+	@Override
+	public String toString() {
+		return "TickStats\n" +
+			   "ticks=" + count + "\n" +
+			   "ticks per second=" + String.format("%.1f", getTicksPerSecond()) + "\n" +
+			   "p50 ms=" + String.format("%.4f", getPercentileMillis(50)) + "\n" +
+			   "p99 ms=" + String.format("%.4f", getPercentileMillis(99)) + "\n" +
+			   "max ms=" + String.format("%.4f", getPercentileMillis(100)) + "\n" +
+			   "allocated bytes per second=" + String.format("%.0f", getAllocatedBytesPerSecond()) + "\n" +
+			   "allocated bytes per tick=" + String.format("%.1f", getAllocatedBytesPerTick()) + "\n";
+	}
+
+}
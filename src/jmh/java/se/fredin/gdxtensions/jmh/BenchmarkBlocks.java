@@ -0,0 +1,57 @@
+package se.fredin.gdxtensions.jmh;
+
+import java.util.Random;
+
+import se.fredin.gdxtensions.collision.CollisionHandler;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Builds the random levels the benchmarks run in. The level grows with the amount of blocks so that
+ * the density, and therefore the amount of blocks near a query, stays the same at every size.
+ * @author Johan Fredin
+ *
+ */
+final class BenchmarkBlocks {
+	
+	/** Average area around each block */
+	private static final float AREA_PER_BLOCK = 128f * 128f;
+	
+	private BenchmarkBlocks() {}
+	
+	/**
+	 * @param blockCount the amount of blocks
+	 * @return the width and height of a square level holding given amount of blocks
+	 */
+	static float levelSize(int blockCount) {
+		return (float) Math.sqrt(blockCount * AREA_PER_BLOCK);
+	}
+	
+	/**
+	 * @param blockCount the amount of blocks
+	 * @param random the random generator to place them with
+	 * @return blocks between 16 and 96 pixels wide and high spread over the level
+	 */
+	static Array<Rectangle> createBlocks(int blockCount, Random random) {
+		float size = levelSize(blockCount);
+		Array<Rectangle> blocks = new Array<>(blockCount);
+		for(int i = 0; i < blockCount; i++) {
+			blocks.add(new Rectangle(random.nextFloat() * size, random.nextFloat() * size, 16f + random.nextFloat() * 80f, 16f + random.nextFloat() * 80f));
+		}
+		return blocks;
+	}
+	
+	/**
+	 * @param blockCount the amount of blocks
+	 * @param random the random generator to place them with
+	 * @return a {@link CollisionHandler} with the blocks as hard blocks
+	 */
+	static CollisionHandler createCollisionHandler(int blockCount, Random random) {
+		CollisionHandler collisionHandler = new CollisionHandler();
+		collisionHandler.setHardBlocks(createBlocks(blockCount, random));
+		collisionHandler.setSoftBlocks(new Array<Rectangle>());
+		return collisionHandler;
+	}
+
+}
@@ -0,0 +1,33 @@
+package se.fredin.gdxtensions.jmh;
+
+import se.fredin.gdxtensions.collision.CollisionHandler;
+import se.fredin.gdxtensions.object.RichGameObject;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Exposes {@link RichGameObject#tryMove(Vector2)} to the benchmarks
+ * @author Johan Fredin
+ *
+ */
+class BenchmarkMover extends RichGameObject {
+	
+	BenchmarkMover(float x, float y, CollisionHandler collisionHandler) {
+		super(new Vector2(x, y), collisionHandler, 16f, 24f);
+	}
+	
+	boolean move(Vector2 newPosition) {
+		return tryMove(newPosition);
+	}
+	
+	@Override
+	public void tick(float deltaTime) {}
+	
+	@Override
+	public void render(SpriteBatch batch) {}
+	
+	@Override
+	public void dispose() {}
+
+}
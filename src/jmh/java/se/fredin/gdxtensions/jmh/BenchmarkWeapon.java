@@ -0,0 +1,27 @@
+package se.fredin.gdxtensions.jmh;
+
+import se.fredin.gdxtensions.object.weapon.Projectile;
+import se.fredin.gdxtensions.object.weapon.automatic.AutomaticWeapon;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * An {@link AutomaticWeapon} whose projectiles the benchmarks can reach
+ * @author Johan Fredin
+ *
+ */
+class BenchmarkWeapon extends AutomaticWeapon {
+	
+	BenchmarkWeapon() {
+		super(0, Integer.MAX_VALUE);
+	}
+	
+	Array<Projectile> getProjectiles() {
+		return projectiles;
+	}
+	
+	Projectile obtain() {
+		return projectilesPool.obtain();
+	}
+
+}
@@ -0,0 +1,119 @@
+package se.fredin.gdxtensions.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import se.fredin.gdxtensions.collision.CollisionHandler;
+import se.fredin.gdxtensions.collision.CollisionHandler.Filter;
+import se.fredin.gdxtensions.collision.SpatialGrid;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Single collision queries against levels of 100 to 100 000 blocks. {@link #linearScan()} is the plain loop over an 
+ * {@link Array} of {@link Rectangle}s the {@link CollisionHandler} used before the packed spatial grid, kept as a baseline.
+ * {@link #gridPacked()} and {@link #gridRectangles()} visit the very same cells of one {@link SpatialGrid}, the first testing
+ * the packed edges and the second dereferencing the {@link Rectangle} of every candidate, so the gain of the packed arrays
+ * is measured apart from the gain of the grid.
+ * @author Johan Fredin
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollisionBenchmark {
+	
+	private static final int QUERY_COUNT = 1024;
+	
+	@Param({"100", "1000", "10000", "100000"})
+	public int blockCount;
+	
+	private CollisionHandler collisionHandler;
+	private Array<Rectangle> blocks;
+	private SpatialGrid grid;
+	private Rectangle[] queries;
+	private int query;
+	
+	@Setup
+	public void setup() {
+		Random random = new Random(1);
+		this.collisionHandler = BenchmarkBlocks.createCollisionHandler(blockCount, random);
+		this.blocks = collisionHandler.getHardBlocks();
+		this.grid = new SpatialGrid(blocks, SpatialGrid.DEFAULT_CELL_SIZE);
+		float size = BenchmarkBlocks.levelSize(blockCount);
+		this.queries = new Rectangle[QUERY_COUNT];
+		for(int i = 0; i < QUERY_COUNT; i++) {
+			queries[i] = new Rectangle(random.nextFloat() * size, random.nextFloat() * size, 16f, 24f);
+		}
+	}
+	
+	private Rectangle nextQuery() {
+		query = (query + 1) & (QUERY_COUNT - 1);
+		return queries[query];
+	}
+	
+	@Benchmark
+	public Rectangle getBoundsAt() {
+		return collisionHandler.getBoundsAt(nextQuery(), Filter.HARD, null);
+	}
+	
+	@Benchmark
+	public boolean isCollisionWithHardBlock() {
+		return collisionHandler.isCollisionWithHardBlock(nextQuery());
+	}
+	
+	@Benchmark
+	public int gridPacked() {
+		return grid.firstOverlap(nextQuery());
+	}
+	
+	/**
+	 * Same cells and same answer as {@link SpatialGrid#firstOverlap(Rectangle)}, testing the candidates through
+	 * the {@link Array} of {@link Rectangle}s instead of the packed edges
+	 */
+	@Benchmark
+	public int gridRectangles() {
+		Rectangle bounds = nextQuery();
+		int[] cellStart = grid.getCellStarts(), cellItems = grid.getCellItems();
+		int columns = grid.getColumns();
+		int first = grid.cellIndex(bounds.x, bounds.y), last = grid.cellIndex(bounds.x + bounds.width, bounds.y + bounds.height);
+		int x1 = first % columns, x2 = last % columns;
+		int y1 = first / columns, y2 = last / columns;
+		int found = Integer.MAX_VALUE;
+		for(int y = y1; y <= y2; y++) {
+			for(int x = x1; x <= x2; x++) {
+				int cell = y * columns + x;
+				for(int i = cellStart[cell], end = cellStart[cell + 1]; i < end; i++) {
+					int index = cellItems[i];
+					if(index < found && bounds.overlaps(blocks.get(index))) {
+						found = index;
+					}
+				}
+			}
+		}
+		return found == Integer.MAX_VALUE ? -1 : found;
+	}
+	
+	@Benchmark
+	public Rectangle linearScan() {
+		Rectangle bounds = nextQuery();
+		for(int i = 0; i < blocks.size; i++) {
+			Rectangle block = blocks.get(i);
+			if(bounds.overlaps(block)) {
+				return block;
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,62 @@
+package se.fredin.gdxtensions.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import se.fredin.gdxtensions.collision.CollisionHandler;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * {@link se.fredin.gdxtensions.object.RichGameObject#tryMove(Vector2)} for 100 to 100 000 movers per operation
+ * in a level with as many blocks as movers. Every mover tries to move back and forth by a few pixels.
+ * @author Johan Fredin
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoveBenchmark {
+	
+	@Param({"100", "1000", "10000", "100000"})
+	public int moverCount;
+	
+	private BenchmarkMover[] movers;
+	private Vector2[] steps;
+	private Vector2 newPosition = new Vector2();
+	private float direction = 1f;
+	
+	@Setup
+	public void setup() {
+		Random random = new Random(2);
+		CollisionHandler collisionHandler = BenchmarkBlocks.createCollisionHandler(moverCount, random);
+		float size = BenchmarkBlocks.levelSize(moverCount);
+		this.movers = new BenchmarkMover[moverCount];
+		this.steps = new Vector2[moverCount];
+		for(int i = 0; i < moverCount; i++) {
+			movers[i] = new BenchmarkMover(random.nextFloat() * size, random.nextFloat() * size, collisionHandler);
+			steps[i] = new Vector2(random.nextFloat() * 8f - 4f, random.nextFloat() * 8f - 4f);
+		}
+	}
+	
+	@Benchmark
+	public void tryMove() {
+		direction = -direction;
+		for(int i = 0; i < movers.length; i++) {
+			BenchmarkMover mover = movers[i];
+			Vector2 position = mover.getPosition();
+			newPosition.set(position.x + steps[i].x * direction, position.y + steps[i].y * direction);
+			mover.move(newPosition);
+		}
+	}
+
+}
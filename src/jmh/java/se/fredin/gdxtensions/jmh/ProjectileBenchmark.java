@@ -0,0 +1,116 @@
+package se.fredin.gdxtensions.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import se.fredin.gdxtensions.collision.CollisionHandler;
+import se.fredin.gdxtensions.object.weapon.PackedProjectiles;
+import se.fredin.gdxtensions.object.weapon.Projectile;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * One tick of 100 to 100 000 projectiles per operation, ticked one by one with {@link Projectile#tick(float)},
+ * through the tick loop of a weapon and as {@link PackedProjectiles}, in a level with as many blocks as projectiles. Projectiles that hit a block
+ * are fired again from a new position so the amount stays the same between operations.
+ * @author Johan Fredin
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProjectileBenchmark {
+	
+	private static final float STEP_TIME = 1f / 60f;
+	private static final float SPEED = 600f;
+	
+	@Param({"100", "1000", "10000", "100000"})
+	public int projectileCount;
+	
+	private Random random;
+	private float levelSize;
+	private CollisionHandler collisionHandler;
+	private Projectile[] projectiles;
+	private BenchmarkWeapon weapon;
+	private PackedProjectiles packedProjectiles;
+	
+	@Setup
+	public void setup() {
+		this.random = new Random(3);
+		this.collisionHandler = BenchmarkBlocks.createCollisionHandler(projectileCount, random);
+		this.levelSize = BenchmarkBlocks.levelSize(projectileCount);
+		this.projectiles = new Projectile[projectileCount];
+		for(int i = 0; i < projectileCount; i++) {
+			projectiles[i] = fire(newProjectile());
+		}
+		this.weapon = new BenchmarkWeapon();
+		Array<Projectile> weaponProjectiles = weapon.getProjectiles();
+		for(int i = 0; i < projectileCount; i++) {
+			weaponProjectiles.add(fire(newProjectile()));
+		}
+		this.packedProjectiles = new PackedProjectiles(projectileCount);
+		packedProjectiles.setCollisionHandler(collisionHandler);
+		fillPackedProjectiles();
+	}
+	
+	private void fillPackedProjectiles() {
+		while(packedProjectiles.size() < projectileCount) {
+			float angle = random.nextFloat() * 6.2831855f;
+			packedProjectiles.add(random.nextFloat() * levelSize, random.nextFloat() * levelSize, 
+					(float) Math.cos(angle) * SPEED, (float) Math.sin(angle) * SPEED, 4f, 4f, 0);
+		}
+	}
+	
+	private Projectile newProjectile() {
+		return new Projectile(new Vector2(), collisionHandler, 4f, 4f);
+	}
+	
+	private Projectile fire(Projectile projectile) {
+		projectile.setCollisionHandler(collisionHandler);
+		projectile.setPosition(random.nextFloat() * levelSize, random.nextFloat() * levelSize);
+		projectile.getBounds().setPosition(projectile.getPosition());
+		float angle = random.nextFloat() * 6.2831855f;
+		projectile.setVelocity((float) Math.cos(angle) * SPEED, (float) Math.sin(angle) * SPEED);
+		projectile.setShootASAP(true);
+		return projectile;
+	}
+	
+	@Benchmark
+	public void projectileTick() {
+		for(int i = 0; i < projectiles.length; i++) {
+			Projectile projectile = projectiles[i];
+			projectile.tick(STEP_TIME);
+			if(projectile.isCollidedWith()) {
+				fire(projectile);
+			}
+		}
+	}
+	
+	@Benchmark
+	public void weaponTick() {
+		weapon.tick(STEP_TIME);
+		// Refill with the projectiles the weapon freed to its pool
+		Array<Projectile> weaponProjectiles = weapon.getProjectiles();
+		while(weaponProjectiles.size < projectileCount) {
+			weaponProjectiles.add(fire(weapon.obtain()));
+		}
+	}
+	
+	@Benchmark
+	public void packedTick() {
+		packedProjectiles.update(STEP_TIME);
+		// Refill with new bullets for the ones retired
+		fillPackedProjectiles();
+	}
+
+}
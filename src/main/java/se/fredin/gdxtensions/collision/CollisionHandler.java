@@ -1,20 +1,51 @@
 package se.fredin.gdxtensions.collision;
 
+import java.util.Comparator;
+
 import se.fredin.gdxtensions.object.RichGameObject;
 import se.fredin.gdxtensions.utils.TiledMapUtils;
 
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongArray;
 
 /** 
- * Handler for rectangle based collision
+ * Handler for rectangle based collision. The hard and soft blocks are indexed by
+ * a {@link SpatialGrid} each so that a query only tests the blocks near the query bounds.
  * @author root
  *
  */
 public class CollisionHandler {
 	
+	/** Orders raycast hits from the closest to the farthest */
+	private static final Comparator<RaycastHit> DISTANCE_ORDER = new Comparator<RaycastHit>() {
+		@Override
+		public int compare(RaycastHit hit1, RaycastHit hit2) {
+			return Float.compare(hit1.getDistance(), hit2.getDistance());
+		}
+	};
+	
 	private Array<Rectangle> hardBlocks;
 	private Array<Rectangle> softBlocks;
+	private SpatialGrid hardBlocksGrid = new SpatialGrid();
+	private SpatialGrid softBlocksGrid = new SpatialGrid();
+	private TileCollisionLayer tileCollisionLayer;
+	/** Receives tile hits, one per thread so queries can be made from several threads at once */
+	private ThreadLocal<Rectangle> tileBounds = new ThreadLocal<Rectangle>() {
+		@Override
+		protected Rectangle initialValue() {
+			return new Rectangle();
+		}
+	};
+	/** Scratch buffers of the batch queries, one set per thread like {@link #tileBounds} */
+	private ThreadLocal<BatchBuffers> batchBuffers = new ThreadLocal<BatchBuffers>() {
+		@Override
+		protected BatchBuffers initialValue() {
+			return new BatchBuffers();
+		}
+	};
+	private CollisionQueryCache queryCache;
+	private boolean isParallelQueries;
 	private Rectangle colliderBounds;
 	
 	public CollisionHandler() {}
@@ -28,8 +59,24 @@ public class CollisionHandler {
 	}
 	
 	public CollisionHandler(Rectangle colliderBounds, TiledMapUtils tiledMapUtils) {
-		this.hardBlocks = tiledMapUtils.getRectangularMapObjects("hard-blocks");
-		this.softBlocks = tiledMapUtils.getRectangularMapObjects("soft-blocks");
+		this(colliderBounds, tiledMapUtils, false);
+	}
+	
+	/**
+	 * Construct a new {@link CollisionHandler} reading the blocks from the "hard-blocks" and "soft-blocks" object layers
+	 * @param colliderBounds the bounds of the colliding object
+	 * @param tiledMapUtils the {@link TiledMapUtils} to read the blocks with
+	 * @param mergeBlocks whether or not to merge touching blocks into larger ones when loading, 
+	 * see {@link TiledMapUtils#mergeRectangles(Array)}
+	 */
+	public CollisionHandler(Rectangle colliderBounds, TiledMapUtils tiledMapUtils, boolean mergeBlocks) {
+		if(mergeBlocks) {
+			setHardBlocks(tiledMapUtils.getMergedRectangularMapObjects("hard-blocks"));
+			setSoftBlocks(tiledMapUtils.getMergedRectangularMapObjects("soft-blocks"));
+		} else {
+			setHardBlocks(tiledMapUtils.getRectangularMapObjects("hard-blocks"));
+			setSoftBlocks(tiledMapUtils.getRectangularMapObjects("soft-blocks"));
+		}
 		this.colliderBounds = colliderBounds;
 	}
 	
@@ -41,21 +88,111 @@ public class CollisionHandler {
 		return colliderBounds;
 	}
 
+	/**
+	 * Set the hard blocks and rebuild their {@link SpatialGrid}
+	 * @param hardBlocks
+	 */
 	public void setHardBlocks(Array<Rectangle> hardBlocks) {
 		this.hardBlocks = hardBlocks;
+		this.hardBlocksGrid.build(hardBlocks);
+		invalidateQueryCache();
 	}
 	
 	public Array<Rectangle> getHardBlocks() {
 		return hardBlocks;
 	}
 	
+	/**
+	 * Set the soft blocks and rebuild their {@link SpatialGrid}
+	 * @param softBlocks
+	 */
 	public void setSoftBlocks(Array<Rectangle> softBlocks) {
 		this.softBlocks = softBlocks;
+		this.softBlocksGrid.build(softBlocks);
+		invalidateQueryCache();
 	}
 	
 	public Array<Rectangle> getSoftBlocks() {
 		return softBlocks;
 	}
+	
+	/**
+	 * Set a {@link TileCollisionLayer} to check for collision with tile blocks besides the
+	 * rectangular hard and soft blocks. Set to null to only use the rectangular blocks.
+	 * @param tileCollisionLayer
+	 */
+	public void setTileCollisionLayer(TileCollisionLayer tileCollisionLayer) {
+		this.tileCollisionLayer = tileCollisionLayer;
+		invalidateQueryCache();
+	}
+	
+	/**
+	 * @return the {@link TileCollisionLayer} used, if any
+	 */
+	public TileCollisionLayer getTileCollisionLayer() {
+		return tileCollisionLayer;
+	}
+	
+	/**
+	 * Set the width and height of the cells of the {@link SpatialGrid}s indexing the blocks.
+	 * A good value is a few times the size of a tile. Default is {@link SpatialGrid#DEFAULT_CELL_SIZE}
+	 * @param cellSize
+	 */
+	public void setGridCellSize(float cellSize) {
+		this.hardBlocksGrid.setCellSize(cellSize);
+		this.softBlocksGrid.setCellSize(cellSize);
+	}
+	
+	/**
+	 * Rebuilds the {@link SpatialGrid}s, must be called if the rectangles in the hard or soft
+	 * block {@link Array}s have been moved, added or removed after they were set.
+	 */
+	public void rebuildGrids() {
+		this.hardBlocksGrid.build(hardBlocks);
+		this.softBlocksGrid.build(softBlocks);
+		invalidateQueryCache();
+	}
+	
+	/**
+	 * Set a {@link CollisionQueryCache} that remembers the candidate blocks around recent
+	 * {@link #getBoundsAt(Rectangle, byte, RichGameObject)} queries so that nearby queries skip the grid walk.
+	 * The answers are the same as without the cache. The cache is invalidated automatically 
+	 * when the blocks are set or rebuilt through this handler. Set to null to disable caching (default).
+	 * @param queryCache
+	 */
+	public void setQueryCache(CollisionQueryCache queryCache) {
+		this.queryCache = queryCache;
+	}
+	
+	/**
+	 * @return the {@link CollisionQueryCache} used, if any
+	 */
+	public CollisionQueryCache getQueryCache() {
+		return queryCache;
+	}
+	
+	/**
+	 * Set whether or not queries may be made from several threads at once, for example by a 
+	 * {@link se.fredin.gdxtensions.object.ParallelMoveResolver}. While enabled the {@link CollisionQueryCache} 
+	 * is bypassed since it is not thread safe. The blocks must not be changed while queries run in parallel.
+	 * @param isParallelQueries
+	 */
+	public void setParallelQueries(boolean isParallelQueries) {
+		this.isParallelQueries = isParallelQueries;
+	}
+	
+	/**
+	 * @return whether or not queries may be made from several threads at once
+	 */
+	public boolean isParallelQueries() {
+		return isParallelQueries;
+	}
+	
+	private void invalidateQueryCache() {
+		if(queryCache != null) {
+			queryCache.invalidate();
+		}
+	}
 
 	
 	/**
@@ -63,37 +200,277 @@ public class CollisionHandler {
 	 * @param bounds the bounding box of the colliding object
 	 * @param filter the type of block we collided with (hard, soft or door)
 	 * @param collider the colliding object
-	 * @return the rectangle of the collided object (if any)
+	 * @return the rectangle of the collided object (if any). When the block is a tile from the 
+	 * {@link TileCollisionLayer} the returned rectangle is reused by the next query made on the same thread
 	 */
 	public Rectangle getBoundsAt(Rectangle bounds, byte filter, RichGameObject collider) {
-		if((filter&Filter.HARD) == Filter.HARD && hardBlocks != null) {
-			for(Rectangle hardBlock : hardBlocks) {
-				if(hardBlock.overlaps(bounds)) {
-					return hardBlock;
-				}
+		if(queryCache != null && !isParallelQueries) {
+			Rectangle block = queryCache.getOverlapping(bounds, filter, hardBlocksGrid, softBlocksGrid);
+			return block != null ? block : getTileAt(bounds, filter);
+		}
+		return findBoundsAt(bounds, filter);
+	}
+	
+	private Rectangle findBoundsAt(Rectangle bounds, byte filter) {
+		if((filter&Filter.HARD) == Filter.HARD) {
+			Rectangle hardBlock = hardBlocksGrid.getOverlapping(bounds);
+			if(hardBlock != null) {
+				return hardBlock;
 			}
 		}
 
-		if((filter&Filter.SOFT) == Filter.SOFT && softBlocks != null) {
-			for(Rectangle softBlock : softBlocks) {
-				if(softBlock.overlaps(bounds)) {
-					return softBlock;
-				}
+		if((filter&Filter.SOFT) == Filter.SOFT) {
+			Rectangle softBlock = softBlocksGrid.getOverlapping(bounds);
+			if(softBlock != null) {
+				return softBlock;
 			}
 		}
 		
+		return getTileAt(bounds, filter);
+	}
+	
+	/**
+	 * @return the reused rectangle holding the tile at given bounds or null if there is none or no {@link TileCollisionLayer}
+	 */
+	private Rectangle getTileAt(Rectangle bounds, byte filter) {
+		if(tileCollisionLayer != null) {
+			Rectangle tile = tileBounds.get();
+			if(tileCollisionLayer.getBoundsAt(bounds, filter, tile)) {
+				return tile;
+			}
+		}
 		return null;
 	}
 	
+	/**
+	 * Batch version of {@link #getBoundsAt(Rectangle, byte, RichGameObject)} for checking many 
+	 * objects at once, e.g all moving objects of a frame. Instead of every query walking its own cells,
+	 * the queries are grouped by the grid cells they cover and the blocks of each cell are tested once 
+	 * against the whole group, see {@link SpatialGrid#firstOverlaps(Rectangle[], int[], int, int[], LongArray)}.
+	 * Gives the same results as running the queries one by one. Does not allocate once the buffers of the 
+	 * calling thread have grown to fit the batch, and may be called from several threads at once.
+	 * @param bounds the bounding boxes to check
+	 * @param filters the type of blocks to check each bounding box against, same indices as bounds
+	 * @param count the amount of queries to run, starting from index 0
+	 * @param results receives the block found for each query or null if none, same indices as bounds.
+	 * Tile blocks from the {@link TileCollisionLayer} are kept in rectangles reused by the next batch on the same thread
+	 * @return the amount of queries that hit a block
+	 */
+	public int getBoundsAt(Rectangle[] bounds, byte[] filters, int count, Rectangle[] results) {
+		BatchBuffers buffers = batchBuffers.get();
+		buffers.ensureCapacity(count);
+		int[] queries = buffers.queries;
+		
+		int queryCount = 0;
+		for(int i = 0; i < count; i++) {
+			results[i] = null;
+			if((filters[i]&Filter.HARD) == Filter.HARD) {
+				queries[queryCount++] = i;
+			}
+		}
+		runBatch(hardBlocksGrid, bounds, queryCount, results, buffers);
+		
+		queryCount = 0;
+		for(int i = 0; i < count; i++) {
+			if(results[i] == null && (filters[i]&Filter.SOFT) == Filter.SOFT) {
+				queries[queryCount++] = i;
+			}
+		}
+		runBatch(softBlocksGrid, bounds, queryCount, results, buffers);
+		
+		int hits = 0;
+		for(int i = 0; i < count; i++) {
+			if(results[i] == null && tileCollisionLayer != null) {
+				Rectangle tile = buffers.tileBounds.get(i);
+				if(tileCollisionLayer.getBoundsAt(bounds[i], filters[i], tile)) {
+					results[i] = tile;
+				}
+			}
+			if(results[i] != null) {
+				hits++;
+			}
+		}
+		return hits;
+	}
+	
+	private static void runBatch(SpatialGrid grid, Rectangle[] bounds, int queryCount, Rectangle[] results, BatchBuffers buffers) {
+		if(queryCount == 0) {
+			return;
+		}
+		int[] queries = buffers.queries, firsts = buffers.firsts;
+		grid.firstOverlaps(bounds, queries, queryCount, firsts, buffers.cellQueries);
+		for(int i = 0; i < queryCount; i++) {
+			int query = queries[i];
+			if(firsts[query] != -1) {
+				results[query] = grid.getBlocks().get(firsts[query]);
+			}
+		}
+	}
+	
 	public boolean isCollisionWithHardBlock(Rectangle collider) {
-		for(Rectangle hardBlock : hardBlocks) {
-			if(collider.overlaps(hardBlock)) {
-				return true;
+		return hardBlocksGrid.firstOverlap(collider) != -1 || 
+			   (tileCollisionLayer != null && tileCollisionLayer.getBoundsAt(collider, Filter.HARD, tileBounds.get()));
+	}
+	
+	/**
+	 * Continuous collision check. Sweeps given bounds along a motion and finds the first block 
+	 * it hits on the way, so fast moving objects can not pass through thin blocks between two frames.
+	 * @param bounds the bounds at the start of the motion
+	 * @param dx the motion along the x axis (e.g velocity.x * deltaTime)
+	 * @param dy the motion along the y axis (e.g velocity.y * deltaTime)
+	 * @param filter the type of blocks to check against (hard, soft or both)
+	 * @param result receives the block hit, the time of impact (0-1) and the normal of the side hit
+	 * @return true if a block was hit
+	 */
+	public boolean sweep(Rectangle bounds, float dx, float dy, byte filter, SweepResult result) {
+		result.reset();
+		if((filter&Filter.HARD) == Filter.HARD) {
+			hardBlocksGrid.sweep(bounds, dx, dy, result);
+		}
+		if((filter&Filter.SOFT) == Filter.SOFT) {
+			softBlocksGrid.sweep(bounds, dx, dy, result);
+		}
+		if(tileCollisionLayer != null) {
+			tileCollisionLayer.sweep(bounds, dx, dy, filter, result);
+		}
+		return result.isHit();
+	}
+	
+	
+	/**
+	 * Casts a ray and finds the closest block it hits. Blocks are found by walking the grid cells 
+	 * (or tiles of the {@link TileCollisionLayer}) along the ray, so only blocks near the ray are tested.
+	 * Useful for line of sight checks.
+	 * @param originX the x position the ray starts at
+	 * @param originY the y position the ray starts at
+	 * @param directionX the x component of the ray direction, does not need to be normalized
+	 * @param directionY the y component of the ray direction, does not need to be normalized
+	 * @param maxDistance how far the ray reaches
+	 * @param filter the type of blocks to check against (hard, soft or both)
+	 * @param hit receives the block hit, the distance to it, the hit point and the normal of the side hit
+	 * @return true if a block was hit
+	 */
+	public boolean raycast(float originX, float originY, float directionX, float directionY, float maxDistance, byte filter, RaycastHit hit) {
+		hit.reset();
+		float length = (float) Math.sqrt(directionX * directionX + directionY * directionY);
+		if(length == 0f) {
+			return false;
+		}
+		directionX /= length;
+		directionY /= length;
+		if((filter&Filter.HARD) == Filter.HARD) {
+			hardBlocksGrid.raycast(originX, originY, directionX, directionY, maxDistance, hit, null);
+		}
+		if((filter&Filter.SOFT) == Filter.SOFT) {
+			softBlocksGrid.raycast(originX, originY, directionX, directionY, maxDistance, hit, null);
+		}
+		if(tileCollisionLayer != null) {
+			tileCollisionLayer.raycast(originX, originY, directionX, directionY, maxDistance, filter, hit, null);
+		}
+		return hit.isHit();
+	}
+	
+	/**
+	 * Casts a ray between two points and finds the closest block in between, 
+	 * see {@link #raycast(float, float, float, float, float, byte, RaycastHit)}
+	 * @param x1 the x position of the start point
+	 * @param y1 the y position of the start point
+	 * @param x2 the x position of the end point
+	 * @param y2 the y position of the end point
+	 * @param filter the type of blocks to check against (hard, soft or both)
+	 * @param hit receives the block hit, the distance to it, the hit point and the normal of the side hit
+	 * @return true if a block was hit, e.g the two points can not see each other
+	 */
+	public boolean segmentCast(float x1, float y1, float x2, float y2, byte filter, RaycastHit hit) {
+		float dx = x2 - x1, dy = y2 - y1;
+		return raycast(x1, y1, dx, dy, (float) Math.sqrt(dx * dx + dy * dy), filter, hit);
+	}
+	
+	/**
+	 * Casts a ray and finds every block it passes through, 
+	 * see {@link #raycast(float, float, float, float, float, byte, RaycastHit)}
+	 * @param originX the x position the ray starts at
+	 * @param originY the y position the ray starts at
+	 * @param directionX the x component of the ray direction, does not need to be normalized
+	 * @param directionY the y component of the ray direction, does not need to be normalized
+	 * @param maxDistance how far the ray reaches
+	 * @param filter the type of blocks to check against (hard, soft or both)
+	 * @param hits receives one {@link RaycastHit} per block hit, sorted from the closest to the farthest. The hits
+	 * are obtained from {@link com.badlogic.gdx.utils.Pools} and should be freed with Pools.freeAll when no longer needed
+	 * @return the amount of hits added
+	 */
+	public int raycastAll(float originX, float originY, float directionX, float directionY, float maxDistance, byte filter, Array<RaycastHit> hits) {
+		float length = (float) Math.sqrt(directionX * directionX + directionY * directionY);
+		if(length == 0f) {
+			return 0;
+		}
+		directionX /= length;
+		directionY /= length;
+		int size = hits.size;
+		if((filter&Filter.HARD) == Filter.HARD) {
+			hardBlocksGrid.raycast(originX, originY, directionX, directionY, maxDistance, null, hits);
+		}
+		if((filter&Filter.SOFT) == Filter.SOFT) {
+			softBlocksGrid.raycast(originX, originY, directionX, directionY, maxDistance, null, hits);
+		}
+		if(tileCollisionLayer != null) {
+			tileCollisionLayer.raycast(originX, originY, directionX, directionY, maxDistance, filter, null, hits);
+		}
+		// Insertion sort of the added hits only, there are usually just a few of them
+		for(int i = size + 1; i < hits.size; i++) {
+			for(int j = i; j > size && DISTANCE_ORDER.compare(hits.get(j - 1), hits.get(j)) > 0; j--) {
+				hits.swap(j - 1, j);
 			}
 		}
-		return false;
+		return hits.size - size;
+	}
+	
+	/**
+	 * Finds the contact between the collider bounds of this handler and given rectangle, see
+	 * {@link #getContact(Rectangle, Rectangle, ContactManifold)}
+	 * @param collisionRect the rectangle to check against
+	 * @param manifold receives the contact
+	 * @return whether or not the rectangles overlap
+	 */
+	public boolean getContact(Rectangle collisionRect, ContactManifold manifold) {
+		return getContact(this.colliderBounds, collisionRect, manifold);
 	}
 	
+	/**
+	 * Finds the contact between two rectangles in one pass. Gives the penetration depth, the normal to push
+	 * the collider out along and the side of the other rectangle that was hit, instead of combining
+	 * {@link #isCollision(Rectangle, Rectangle)} with {@link #fromLeft(Rectangle, Rectangle)} and the other side checks.
+	 * The contact is resolved along the axis with the least overlap.
+	 * @param collider the rectangle of the colliding object
+	 * @param collisionRect the rectangle it collides with
+	 * @param manifold receives the contact, reset if the rectangles do not overlap
+	 * @return whether or not the rectangles overlap
+	 */
+	public static boolean getContact(Rectangle collider, Rectangle collisionRect, ContactManifold manifold) {
+		float overlapWidth = Math.min(collider.x + collider.width, collisionRect.x + collisionRect.width) - Math.max(collider.x, collisionRect.x);
+		float overlapHeight = Math.min(collider.y + collider.height, collisionRect.y + collisionRect.height) - Math.max(collider.y, collisionRect.y);
+		if(overlapWidth <= 0f || overlapHeight <= 0f) {
+			manifold.reset();
+			return false;
+		}
+		// Twice the centers, only the sign of the difference matters
+		float centerDeltaX = (collider.x * 2 + collider.width) - (collisionRect.x * 2 + collisionRect.width);
+		float centerDeltaY = (collider.y * 2 + collider.height) - (collisionRect.y * 2 + collisionRect.height);
+		if(overlapWidth < overlapHeight) {
+			if(centerDeltaX < 0f) {
+				manifold.set(overlapWidth, overlapHeight, overlapWidth, -1f, 0f, ContactManifold.SIDE_LEFT);
+			} else {
+				manifold.set(overlapWidth, overlapHeight, overlapWidth, 1f, 0f, ContactManifold.SIDE_RIGHT);
+			}
+		} else {
+			if(centerDeltaY < 0f) {
+				manifold.set(overlapWidth, overlapHeight, overlapHeight, 0f, -1f, ContactManifold.SIDE_BOTTOM);
+			} else {
+				manifold.set(overlapWidth, overlapHeight, overlapHeight, 0f, 1f, ContactManifold.SIDE_TOP);
+			}
+		}
+		return true;
+	}
 	
 	public boolean isCollision(Rectangle collisionRect) {
 		return this.colliderBounds.overlaps(collisionRect);
@@ -135,6 +512,28 @@ public class CollisionHandler {
 		return collider.y + collider.height <= collisionRect.y;
 	}
 	
+	/**
+	 * Scratch buffers of {@link CollisionHandler#getBoundsAt(Rectangle[], byte[], int, Rectangle[])}
+	 */
+	private static class BatchBuffers {
+		
+		int[] queries = new int[0];
+		int[] firsts = new int[0];
+		final LongArray cellQueries = new LongArray();
+		final Array<Rectangle> tileBounds = new Array<Rectangle>();
+		
+		void ensureCapacity(int count) {
+			if(queries.length < count) {
+				queries = new int[count];
+				firsts = new int[count];
+			}
+			while(tileBounds.size < count) {
+				tileBounds.add(new Rectangle());
+			}
+		}
+		
+	}
+	
 	/**
 	 * Used to specify type of block that we collide with.
 	 * could be a wall, a grass hill or a door.
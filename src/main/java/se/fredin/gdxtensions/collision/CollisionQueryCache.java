@@ -0,0 +1,216 @@
+package se.fredin.gdxtensions.collision;
+
+import se.fredin.gdxtensions.collision.CollisionHandler.Filter;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Optional memo for {@link CollisionHandler#getBoundsAt(Rectangle, byte, se.fredin.gdxtensions.object.RichGameObject)}
+ * so that nearly the same question asked again, like the probes of one moving object a frame or a few pixels apart,
+ * does not walk the grid again. Query bounds are quantized to {@link #getQuantum()} pixels: the cache is a fixed
+ * size table where each slot is keyed by the quantized region covering the bounds and the filter, and holds the
+ * indices of the hard and soft blocks overlapping that region. Any block overlapping the bounds overlaps the region
+ * too, so running the exact overlap test on the short candidate list always gives the same answer as a full query.
+ * A larger quantum makes more queries share a slot at the cost of longer candidate lists.
+ * <br>
+ * The candidates stay valid until the blocks change. All entries are dropped by {@link #invalidate()}, which the
+ * {@link CollisionHandler} calls whenever its blocks change. Tiles of a {@link TileCollisionLayer} are not cached
+ * since a tile lookup is already constant time. Hit and miss counters are kept for tuning.
+ * @author Johan Fredin
+ *
+ */
+public class CollisionQueryCache {
+
+	/** Default amount of slots in the cache. Value={@value #DEFAULT_SIZE} */
+	public static final int DEFAULT_SIZE = 1024;
+	/** Default size in pixels that query bounds are quantized to. Value={@value #DEFAULT_QUANTUM} */
+	public static final float DEFAULT_QUANTUM = 16f;
+
+	private final int mask;
+	/** The quantized region of each slot, four ints per slot */
+	private final int[] keys;
+	private final byte[] filters;
+	private final int[] generations;
+	private final IntArray[] hardCandidates;
+	private final IntArray[] softCandidates;
+	private float quantum;
+	private int generation = 1;
+	private long hits, misses;
+
+	/**
+	 * Construct a new {@link CollisionQueryCache} with {@link #DEFAULT_SIZE} slots and {@link #DEFAULT_QUANTUM}
+	 */
+	public CollisionQueryCache() {
+		this(DEFAULT_SIZE);
+	}
+
+	/**
+	 * Construct a new {@link CollisionQueryCache} using {@link #DEFAULT_QUANTUM}
+	 * @param size the amount of slots, rounded up to the next power of two
+	 */
+	public CollisionQueryCache(int size) {
+		this(size, DEFAULT_QUANTUM);
+	}
+
+	/**
+	 * Construct a new {@link CollisionQueryCache}
+	 * @param size the amount of slots, rounded up to the next power of two
+	 * @param quantum the size in pixels that query bounds are quantized to, see {@link #setQuantum(float)}
+	 */
+	public CollisionQueryCache(int size, float quantum) {
+		size = MathUtils.nextPowerOfTwo(size);
+		this.mask = size - 1;
+		this.keys = new int[size * 4];
+		this.filters = new byte[size];
+		this.generations = new int[size];
+		this.hardCandidates = new IntArray[size];
+		this.softCandidates = new IntArray[size];
+		setQuantum(quantum);
+	}
+
+	/**
+	 * Drops all cached results. Not needed for correctness since the candidates stay valid until the blocks
+	 * change, but keeps the table from holding regions no object is near any more
+	 */
+	public void beginFrame() {
+		invalidate();
+	}
+
+	/**
+	 * Drops all cached results
+	 */
+	public void invalidate() {
+		generation++;
+	}
+
+	/**
+	 * Finds the first hard and then the first soft block overlapping given bounds, exactly like the grids would,
+	 * looking up or caching the candidates of the quantized region around the bounds
+	 * @param bounds the bounds of the query
+	 * @param filter the filter of the query
+	 * @param hardBlocksGrid the grid of the hard blocks
+	 * @param softBlocksGrid the grid of the soft blocks
+	 * @return the overlapping block or null if none
+	 */
+	Rectangle getOverlapping(Rectangle bounds, byte filter, SpatialGrid hardBlocksGrid, SpatialGrid softBlocksGrid) {
+		int x1 = (int) Math.floor(bounds.x / quantum), y1 = (int) Math.floor(bounds.y / quantum);
+		int x2 = (int) Math.floor((bounds.x + bounds.width) / quantum), y2 = (int) Math.floor((bounds.y + bounds.height) / quantum);
+		int slot = slot(x1, y1, x2, y2, filter);
+		int key = slot * 4;
+		if(generations[slot] == generation && filters[slot] == filter && keys[key] == x1 &&
+		   keys[key + 1] == y1 && keys[key + 2] == x2 && keys[key + 3] == y2) {
+			hits++;
+		} else {
+			misses++;
+			fill(slot, x1, y1, x2, y2, filter, hardBlocksGrid, softBlocksGrid);
+		}
+
+		if((filter&Filter.HARD) == Filter.HARD) {
+			int index = hardBlocksGrid.firstOverlap(bounds, hardCandidates[slot]);
+			if(index != -1) {
+				return hardBlocksGrid.getBlocks().get(index);
+			}
+		}
+		if((filter&Filter.SOFT) == Filter.SOFT) {
+			int index = softBlocksGrid.firstOverlap(bounds, softCandidates[slot]);
+			if(index != -1) {
+				return softBlocksGrid.getBlocks().get(index);
+			}
+		}
+		return null;
+	}
+
+	private void fill(int slot, int x1, int y1, int x2, int y2, byte filter, SpatialGrid hardBlocksGrid, SpatialGrid softBlocksGrid) {
+		int key = slot * 4;
+		keys[key] = x1;
+		keys[key + 1] = y1;
+		keys[key + 2] = x2;
+		keys[key + 3] = y2;
+		filters[slot] = filter;
+		generations[slot] = generation;
+		if(hardCandidates[slot] == null) {
+			hardCandidates[slot] = new IntArray();
+			softCandidates[slot] = new IntArray();
+		}
+		float minX = x1 * quantum, minY = y1 * quantum, maxX = (x2 + 1) * quantum, maxY = (y2 + 1) * quantum;
+		hardCandidates[slot].clear();
+		softCandidates[slot].clear();
+		if((filter&Filter.HARD) == Filter.HARD) {
+			hardBlocksGrid.getOverlapping(minX, minY, maxX, maxY, hardCandidates[slot]);
+		}
+		if((filter&Filter.SOFT) == Filter.SOFT) {
+			softBlocksGrid.getOverlapping(minX, minY, maxX, maxY, softCandidates[slot]);
+		}
+	}
+
+	private int slot(int x1, int y1, int x2, int y2, byte filter) {
+		int hash = filter;
+		hash = 31 * hash + x1;
+		hash = 31 * hash + y1;
+		hash = 31 * hash + x2;
+		hash = 31 * hash + y2;
+		hash ^= hash >>> 16;
+		return hash & mask;
+	}
+
+	/**
+	 * @return the size in pixels that query bounds are quantized to
+	 */
+	public float getQuantum() {
+		return quantum;
+	}
+
+	/**
+	 * Set the size in pixels that query bounds are quantized to, a tile or so is a good value. Also drops all cached results
+	 * @param quantum
+	 * @throws IllegalArgumentException if the quantum is not positive
+	 */
+	public void setQuantum(float quantum) {
+		if(quantum <= 0f) {
+			throw new IllegalArgumentException("quantum must be positive, was " + quantum);
+		}
+		this.quantum = quantum;
+		invalidate();
+	}
+
+	/**
+	 * @return the amount of queries answered from cached candidates since the last {@link #resetStats()}
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return the amount of queries that had to look up their candidates since the last {@link #resetStats()}
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return the share of queries answered by the cache, 0-1
+	 */
+	public float getHitRate() {
+		long total = hits + misses;
+		return total == 0 ? 0f : (float) hits / total;
+	}
+
+	/**
+	 * Resets the hit and miss counters
+	 */
+	public void resetStats() {
+		hits = misses = 0;
+	}
+
+	@Override
+	public String toString() {
+		return "CollisionQueryCache\n" +
+			   "quantum=" + quantum + "\n" +
+			   "hits=" + hits + "\n" +
+			   "misses=" + misses + "\n" +
+			   "hit rate=" + getHitRate() + "\n";
+	}
+
+}
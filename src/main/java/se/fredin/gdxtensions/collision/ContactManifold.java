@@ -0,0 +1,145 @@
+package se.fredin.gdxtensions.collision;
+
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * Holds everything about the contact between two overlapping {@link Rectangle}s, found in one pass by
+ * {@link CollisionHandler#getContact(Rectangle, Rectangle, ContactManifold)}.
+ * Replaces combining {@link CollisionHandler#isCollision(Rectangle, Rectangle)} with the from left, right, top and bottom checks,
+ * each of which redo part of the overlap math. The contact is always described from the point of view of the collider,
+ * the normal points in the direction the collider has to move to get out of the other rectangle and the depth is how far.
+ * Instances are meant to be reused between queries.
+ * @author Johan Fredin
+ *
+ */
+public class ContactManifold {
+	
+	/** The collider does not touch the other rectangle */
+	public static final byte SIDE_NONE = 0;
+	/** The collider hit the left side of the other rectangle */
+	public static final byte SIDE_LEFT = 1;
+	/** The collider hit the right side of the other rectangle */
+	public static final byte SIDE_RIGHT = 2;
+	/** The collider hit the top side of the other rectangle */
+	public static final byte SIDE_TOP = 3;
+	/** The collider hit the bottom side of the other rectangle */
+	public static final byte SIDE_BOTTOM = 4;
+	
+	private float depth;
+	private float normalX, normalY;
+	private float overlapWidth, overlapHeight;
+	private byte side = SIDE_NONE;
+	
+	/**
+	 * Clears the manifold, making it describe no contact
+	 */
+	public void reset() {
+		this.depth = 0f;
+		this.normalX = this.normalY = 0f;
+		this.overlapWidth = this.overlapHeight = 0f;
+		this.side = SIDE_NONE;
+	}
+	
+	void set(float overlapWidth, float overlapHeight, float depth, float normalX, float normalY, byte side) {
+		this.overlapWidth = overlapWidth;
+		this.overlapHeight = overlapHeight;
+		this.depth = depth;
+		this.normalX = normalX;
+		this.normalY = normalY;
+		this.side = side;
+	}
+	
+	/**
+	 * Makes this manifold describe the same contact seen from the other rectangle
+	 * @param manifold the manifold to flip
+	 * @return this manifold for chaining
+	 */
+	public ContactManifold setFlipped(ContactManifold manifold) {
+		byte flippedSide = SIDE_NONE;
+		switch(manifold.side) {
+		case SIDE_LEFT:
+			flippedSide = SIDE_RIGHT;
+			break;
+		case SIDE_RIGHT:
+			flippedSide = SIDE_LEFT;
+			break;
+		case SIDE_TOP:
+			flippedSide = SIDE_BOTTOM;
+			break;
+		case SIDE_BOTTOM:
+			flippedSide = SIDE_TOP;
+			break;
+		}
+		set(manifold.overlapWidth, manifold.overlapHeight, manifold.depth, 0f - manifold.normalX, 0f - manifold.normalY, flippedSide);
+		return this;
+	}
+	
+	/**
+	 * Makes this manifold a copy of given manifold
+	 * @param manifold the manifold to copy
+	 * @return this manifold for chaining
+	 */
+	public ContactManifold set(ContactManifold manifold) {
+		set(manifold.overlapWidth, manifold.overlapHeight, manifold.depth, manifold.normalX, manifold.normalY, manifold.side);
+		return this;
+	}
+	
+	/**
+	 * @return whether or not the rectangles overlap
+	 */
+	public boolean isTouching() {
+		return side != SIDE_NONE;
+	}
+	
+	/**
+	 * @return how far the collider has to move along the normal to stop overlapping
+	 */
+	public float getDepth() {
+		return depth;
+	}
+	
+	/**
+	 * @return the x component of the normal, the direction the collider is pushed out in
+	 */
+	public float getNormalX() {
+		return normalX;
+	}
+	
+	/**
+	 * @return the y component of the normal, the direction the collider is pushed out in
+	 */
+	public float getNormalY() {
+		return normalY;
+	}
+	
+	/**
+	 * @return the width of the overlapping area
+	 */
+	public float getOverlapWidth() {
+		return overlapWidth;
+	}
+	
+	/**
+	 * @return the height of the overlapping area
+	 */
+	public float getOverlapHeight() {
+		return overlapHeight;
+	}
+	
+	/**
+	 * @return the side of the other rectangle that the collider hit, one of the SIDE constants
+	 */
+	public byte getSide() {
+		return side;
+	}
+	
+	@Override
+	public String toString() {
+		return "ContactManifold\n" +
+			   "side=" + side + "\n" +
+			   "depth=" + depth + "\n" +
+			   "normal=" + normalX + "," + normalY + "\n" +
+			   "overlap=" + overlapWidth + "x" + overlapHeight + "\n";
+	}
+
+}
@@ -0,0 +1,240 @@
+package se.fredin.gdxtensions.collision;
+
+import se.fredin.gdxtensions.object.BasicGameObject;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Pool.Poolable;
+
+/**
+ * Turns the overlapping pairs found every frame into begin, stay and end contact events, so gameplay code
+ * only has to react when a contact changes. Each pair gets its {@link ContactManifold} computed once per frame.
+ * Pairs are fed in between {@link #begin()} and {@link #end()}, either one at a time through {@link #onPair(BasicGameObject, BasicGameObject)}
+ * or all pairs of a {@link SortAndSweep} at once with {@link #update(SortAndSweep)}.
+ * Events go to the {@link ContactListener} if one is set, otherwise to the contact methods of both game objects,
+ * like {@link BasicGameObject#onContactBegin(BasicGameObject, ContactManifold)}.
+ * Events are fired in a fixed order, begin and stay in the order the pairs are fed and end in the order the contacts began.
+ * Does not allocate once the contact pool has grown to fit the amount of contacts.
+ * @author Johan Fredin
+ *
+ */
+public class ContactTracker implements SortAndSweep.PairListener {
+	
+	private ObjectMap<Contact, Contact> contactsByPair = new ObjectMap<>();
+	private Array<Contact> contacts = new Array<>();
+	private Contact key = new Contact();
+	private ContactManifold manifold = new ContactManifold();
+	private ContactManifold flippedManifold = new ContactManifold();
+	private ContactListener contactListener;
+	private int frame;
+	private Pool<Contact> contactPool = new Pool<Contact>() {
+		@Override
+		protected Contact newObject() {
+			return new Contact();
+		}
+	};
+	
+	/**
+	 * Construct a new {@link ContactTracker} that sends events to the game objects themselves
+	 */
+	public ContactTracker() {}
+	
+	/**
+	 * Construct a new {@link ContactTracker}
+	 * @param contactListener receives the events, may be null to send them to the game objects themselves
+	 */
+	public ContactTracker(ContactListener contactListener) {
+		this.contactListener = contactListener;
+	}
+	
+	/**
+	 * Starts a new frame, call before feeding the pairs
+	 */
+	public void begin() {
+		frame++;
+	}
+	
+	/**
+	 * Feeds one pair of objects whose bounds may overlap. Fires a begin event if they did not touch last frame 
+	 * and a stay event if they did. Pairs that do not actually overlap are ignored.
+	 */
+	@Override
+	public void onPair(BasicGameObject first, BasicGameObject second) {
+		key.first = first;
+		key.second = second;
+		Contact contact = contactsByPair.get(key);
+		key.first = key.second = null;
+		
+		if(!CollisionHandler.getContact(first.getBounds(), second.getBounds(), manifold)) {
+			return;
+		}
+		boolean isNew = contact == null;
+		if(isNew) {
+			contact = contactPool.obtain();
+			contact.first = first;
+			contact.second = second;
+			contactsByPair.put(contact, contact);
+			contacts.add(contact);
+		}
+		if(contact.first == first) {
+			contact.manifold.set(manifold);
+		} else {
+			// Same pair fed the other way around, keep describing it from the first object it began with
+			contact.manifold.setFlipped(manifold);
+		}
+		contact.frame = frame;
+		fire(contact, isNew ? Contact.BEGIN : Contact.STAY);
+	}
+	
+	/**
+	 * Ends the frame, fires end events for the contacts that were not fed since {@link #begin()}
+	 */
+	public void end() {
+		int kept = 0;
+		for(int i = 0; i < contacts.size; i++) {
+			Contact contact = contacts.get(i);
+			if(contact.frame == frame) {
+				contacts.set(kept++, contact);
+			} else {
+				contactsByPair.remove(contact);
+				fire(contact, Contact.END);
+				contactPool.free(contact);
+			}
+		}
+		contacts.truncate(kept);
+	}
+	
+	/**
+	 * Runs a whole frame with the pairs found by the last {@link SortAndSweep#update()}
+	 * @param sortAndSweep the broadphase holding the pairs
+	 */
+	public void update(SortAndSweep sortAndSweep) {
+		begin();
+		sortAndSweep.dispatch(this);
+		end();
+	}
+	
+	/**
+	 * Ends all current contacts, firing their end events
+	 */
+	public void clear() {
+		frame++;
+		end();
+	}
+	
+	/**
+	 * @return the amount of pairs currently in contact
+	 */
+	public int getContactCount() {
+		return contacts.size;
+	}
+	
+	/**
+	 * @return the {@link ContactListener} receiving the events, null if they go to the game objects
+	 */
+	public ContactListener getContactListener() {
+		return contactListener;
+	}
+	
+	/**
+	 * @param contactListener receives the events, may be null to send them to the game objects themselves
+	 */
+	public void setContactListener(ContactListener contactListener) {
+		this.contactListener = contactListener;
+	}
+	
+	private void fire(Contact contact, int type) {
+		BasicGameObject first = contact.first, second = contact.second;
+		if(contactListener != null) {
+			switch(type) {
+			case Contact.BEGIN:
+				contactListener.beginContact(first, second, contact.manifold);
+				break;
+			case Contact.STAY:
+				contactListener.stayContact(first, second, contact.manifold);
+				break;
+			default:
+				contactListener.endContact(first, second, contact.manifold);
+				break;
+			}
+			return;
+		}
+		flippedManifold.setFlipped(contact.manifold);
+		switch(type) {
+		case Contact.BEGIN:
+			first.onContactBegin(second, contact.manifold);
+			second.onContactBegin(first, flippedManifold);
+			break;
+		case Contact.STAY:
+			first.onContactStay(second, contact.manifold);
+			second.onContactStay(first, flippedManifold);
+			break;
+		default:
+			first.onContactEnd(second, contact.manifold);
+			second.onContactEnd(first, flippedManifold);
+			break;
+		}
+	}
+	
+	/**
+	 * Receives the contact events of a {@link ContactTracker}. The manifold describes the contact
+	 * from the point of view of the first object and is only valid during the call.
+	 * @author Johan Fredin
+	 *
+	 */
+	public interface ContactListener {
+		
+		/**
+		 * Called the first frame two objects touch
+		 */
+		void beginContact(BasicGameObject first, BasicGameObject second, ContactManifold manifold);
+		
+		/**
+		 * Called every following frame the two objects still touch
+		 */
+		void stayContact(BasicGameObject first, BasicGameObject second, ContactManifold manifold);
+		
+		/**
+		 * Called the first frame two objects no longer touch, the manifold holds the last contact
+		 */
+		void endContact(BasicGameObject first, BasicGameObject second, ContactManifold manifold);
+		
+	}
+	
+	/**
+	 * A pair of objects in contact, equal to another contact with the same objects in any order
+	 */
+	private static class Contact implements Poolable {
+		
+		static final int BEGIN = 0;
+		static final int STAY = 1;
+		static final int END = 2;
+		
+		BasicGameObject first, second;
+		final ContactManifold manifold = new ContactManifold();
+		int frame;
+		
+		@Override
+		public void reset() {
+			first = second = null;
+			manifold.reset();
+		}
+		
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(first) + System.identityHashCode(second);
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof Contact)) {
+				return false;
+			}
+			Contact other = (Contact) obj;
+			return (first == other.first && second == other.second) || (first == other.second && second == other.first);
+		}
+		
+	}
+
+}
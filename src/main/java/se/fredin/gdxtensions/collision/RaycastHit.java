@@ -0,0 +1,110 @@
+package se.fredin.gdxtensions.collision;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Pool.Poolable;
+
+/**
+ * Holds the result of a raycast or segment cast made with the {@link CollisionHandler}.
+ * Contains the block that was hit, the distance from the ray origin to the hit point,
+ * the hit point itself and the normal of the side that was hit. Instances are meant to be
+ * reused between queries and can be pooled, the hits added by
+ * {@link CollisionHandler#raycastAll(float, float, float, float, float, byte, com.badlogic.gdx.utils.Array)}
+ * are obtained from {@link com.badlogic.gdx.utils.Pools}.
+ * @author Johan Fredin
+ *
+ */
+public class RaycastHit implements Poolable {
+
+	private Rectangle block;
+	private float distance = Float.MAX_VALUE;
+	private float x, y;
+	private float normalX, normalY;
+	private Rectangle tileBounds;
+
+	@Override
+	public void reset() {
+		this.block = null;
+		this.distance = Float.MAX_VALUE;
+		this.x = this.y = 0f;
+		this.normalX = this.normalY = 0f;
+	}
+
+	void set(Rectangle block, float distance, float x, float y, float normalX, float normalY) {
+		this.block = block;
+		this.distance = distance;
+		this.x = x;
+		this.y = y;
+		this.normalX = normalX;
+		this.normalY = normalY;
+	}
+
+	/**
+	 * @return the {@link Rectangle} owned by this hit that receives the bounds of a hit tile
+	 * when casting against a {@link TileCollisionLayer}
+	 */
+	Rectangle getTileBounds() {
+		if(tileBounds == null) {
+			tileBounds = new Rectangle();
+		}
+		return tileBounds;
+	}
+
+	/**
+	 * @return whether or not a block was hit
+	 */
+	public boolean isHit() {
+		return block != null;
+	}
+
+	/**
+	 * @return the block that was hit or null if none was hit
+	 */
+	public Rectangle getBlock() {
+		return block;
+	}
+
+	/**
+	 * @return the distance from the ray origin to the hit point, 0 if the ray started inside the block
+	 */
+	public float getDistance() {
+		return distance;
+	}
+
+	/**
+	 * @return the x position of the hit point
+	 */
+	public float getX() {
+		return x;
+	}
+
+	/**
+	 * @return the y position of the hit point
+	 */
+	public float getY() {
+		return y;
+	}
+
+	/**
+	 * @return the x component of the surface normal of the side that was hit
+	 */
+	public float getNormalX() {
+		return normalX;
+	}
+
+	/**
+	 * @return the y component of the surface normal of the side that was hit
+	 */
+	public float getNormalY() {
+		return normalY;
+	}
+
+	@Override
+	public String toString() {
+		return "RaycastHit\n" +
+			   "block=" + block + "\n" +
+			   "distance=" + distance + "\n" +
+			   "point=" + x + "," + y + "\n" +
+			   "normal=" + normalX + "," + normalY + "\n";
+	}
+
+}
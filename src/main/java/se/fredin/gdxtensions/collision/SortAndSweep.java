@@ -0,0 +1,209 @@
+package se.fredin.gdxtensions.collision;
+
+import java.util.Arrays;
+
+import se.fredin.gdxtensions.object.BasicGameObject;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Sort and sweep broadphase for collision between moving {@link BasicGameObject}s.
+ * Instead of letting every object test itself against every other object, the objects of a frame
+ * are sorted by the left edge of their bounds and swept once from left to right, so only objects
+ * overlapping on the x axis are compared. The overlapping pairs found can then be dispatched to
+ * {@link BasicGameObject#onCollision(BasicGameObject)} or to a {@link PairListener}.
+ * Each added {@link Array} can be put in a group with a mask of the groups it collides with,
+ * so for example projectiles do not get tested against other projectiles.
+ * Does not allocate once its buffers have grown to fit the amount of objects and pairs.
+ * Typical use, once per frame:
+ * <pre>
+ * sortAndSweep.clear();
+ * sortAndSweep.add(enemies, ENEMIES, 1 &lt;&lt; PROJECTILES);
+ * sortAndSweep.add(projectiles, PROJECTILES, 1 &lt;&lt; ENEMIES);
+ * sortAndSweep.update();
+ * sortAndSweep.dispatch();
+ * </pre>
+ * @author Johan Fredin
+ *
+ */
+public class SortAndSweep {
+
+	/** Mask making a group collide with every group */
+	public static final int ALL_GROUPS = 0xFFFFFFFF;
+
+	private Array<BasicGameObject> objects = new Array<>();
+	private int[] groups = new int[16];
+	private int[] masks = new int[16];
+	private long[] order = new long[16];
+	private int[] pairs = new int[32];
+	private int pairCount;
+
+	/**
+	 * Removes all objects and pairs, call at the start of every frame before adding the objects
+	 */
+	public void clear() {
+		objects.clear();
+		pairCount = 0;
+	}
+
+	/**
+	 * Adds objects that collide with all other objects
+	 * @param gameObjects the objects to add
+	 */
+	public void add(Array<? extends BasicGameObject> gameObjects) {
+		add(gameObjects, 0, ALL_GROUPS);
+	}
+
+	/**
+	 * Adds objects belonging to a group
+	 * @param gameObjects the objects to add
+	 * @param group the group of the objects, 0-31
+	 * @param collidesWith bit mask of the groups these objects collide with, e.g 1 &lt;&lt; otherGroup
+	 */
+	public void add(Array<? extends BasicGameObject> gameObjects, int group, int collidesWith) {
+		for(BasicGameObject gameObject : gameObjects) {
+			add(gameObject, group, collidesWith);
+		}
+	}
+
+	/**
+	 * Adds one object belonging to a group
+	 * @param gameObject the object to add
+	 * @param group the group of the object, 0-31
+	 * @param collidesWith bit mask of the groups this object collides with, e.g 1 &lt;&lt; otherGroup
+	 */
+	public void add(BasicGameObject gameObject, int group, int collidesWith) {
+		int index = objects.size;
+		if(index == groups.length) {
+			groups = Arrays.copyOf(groups, index * 2);
+			masks = Arrays.copyOf(masks, index * 2);
+			order = Arrays.copyOf(order, index * 2);
+		}
+		objects.add(gameObject);
+		groups[index] = group;
+		masks[index] = collidesWith;
+	}
+
+	/**
+	 * Sorts the objects by the left edge of their bounds and sweeps them to find the overlapping pairs
+	 * @return the amount of overlapping pairs found
+	 */
+	public int update() {
+		pairCount = 0;
+		int size = objects.size;
+		for(int i = 0; i < size; i++) {
+			order[i] = (long) sortableBits(objects.get(i).getBounds().x) << 32 | i;
+		}
+		Arrays.sort(order, 0, size);
+
+		for(int i = 0; i < size; i++) {
+			int a = (int) order[i];
+			Rectangle boundsA = objects.get(a).getBounds();
+			float rightA = boundsA.x + boundsA.width;
+			for(int j = i + 1; j < size; j++) {
+				int b = (int) order[j];
+				Rectangle boundsB = objects.get(b).getBounds();
+				if(boundsB.x >= rightA) {
+					// Every object after this one starts even further to the right
+					break;
+				}
+				if(collides(a, b) && boundsA.y < boundsB.y + boundsB.height && boundsA.y + boundsA.height > boundsB.y) {
+					addPair(a, b);
+				}
+			}
+		}
+		return pairCount;
+	}
+
+	/**
+	 * Reports every overlapping pair found by the last {@link #update()} to both objects of the pair
+	 * through {@link BasicGameObject#onCollision(BasicGameObject)}
+	 */
+	public void dispatch() {
+		for(int i = 0; i < pairCount; i++) {
+			BasicGameObject a = getPairFirst(i), b = getPairSecond(i);
+			a.onCollision(b);
+			b.onCollision(a);
+		}
+	}
+
+	/**
+	 * Reports every overlapping pair found by the last {@link #update()} to given listener
+	 * @param pairListener the listener to report the pairs to
+	 */
+	public void dispatch(PairListener pairListener) {
+		for(int i = 0; i < pairCount; i++) {
+			pairListener.onPair(getPairFirst(i), getPairSecond(i));
+		}
+	}
+
+	/**
+	 * @return the amount of overlapping pairs found by the last {@link #update()}
+	 */
+	public int getPairCount() {
+		return pairCount;
+	}
+
+	/**
+	 * @param pair the index of the pair, 0 to {@link #getPairCount()} - 1
+	 * @return the first object of the pair
+	 */
+	public BasicGameObject getPairFirst(int pair) {
+		return objects.get(pairs[pair * 2]);
+	}
+
+	/**
+	 * @param pair the index of the pair, 0 to {@link #getPairCount()} - 1
+	 * @return the second object of the pair
+	 */
+	public BasicGameObject getPairSecond(int pair) {
+		return objects.get(pairs[pair * 2 + 1]);
+	}
+
+	/**
+	 * @return the amount of objects added since the last {@link #clear()}
+	 */
+	public int getObjectCount() {
+		return objects.size;
+	}
+
+	private boolean collides(int a, int b) {
+		return (masks[a] & (1 << groups[b])) != 0 || (masks[b] & (1 << groups[a])) != 0;
+	}
+
+	private void addPair(int a, int b) {
+		if(pairCount * 2 == pairs.length) {
+			pairs = Arrays.copyOf(pairs, pairs.length * 2);
+		}
+		// Keep the pair in the order the objects were added so dispatching is deterministic
+		pairs[pairCount * 2] = Math.min(a, b);
+		pairs[pairCount * 2 + 1] = Math.max(a, b);
+		pairCount++;
+	}
+
+	/**
+	 * @return the bits of given float flipped so that comparing them as signed ints orders them like the floats
+	 */
+	private static int sortableBits(float value) {
+		int bits = Float.floatToIntBits(value);
+		return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+	}
+
+	/**
+	 * Receives the overlapping pairs found by a {@link SortAndSweep}
+	 * @author Johan Fredin
+	 *
+	 */
+	public interface PairListener {
+
+		/**
+		 * Called once per overlapping pair
+		 * @param first the object added first of the two
+		 * @param second the object added last of the two
+		 */
+		void onPair(BasicGameObject first, BasicGameObject second);
+
+	}
+
+}
@@ -0,0 +1,568 @@
+package se.fredin.gdxtensions.collision;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.Pools;
+
+/**
+ * Static uniform grid used by the {@link CollisionHandler} to avoid testing every block
+ * on every query. The grid is built once from an {@link Array} of {@link Rectangle}s and
+ * each cell stores the indices of the blocks touching it in one packed int array, so a query
+ * only visits the blocks in the cells covered by the query bounds. The edges of the blocks
+ * are copied into parallel float arrays so the tests run over contiguous primitives instead
+ * of dereferencing one {@link Rectangle} per block. The {@link Rectangle}s are still returned to callers.
+ * The grid does not track changes made to the rectangles after it was built, call
+ * {@link #build(Array)} again if the blocks are moved, added or removed.
+ * @author Johan Fredin
+ *
+ */
+public class SpatialGrid {
+
+	/** Default width and height in pixels of one grid cell. Value={@value #DEFAULT_CELL_SIZE} */
+	public static final float DEFAULT_CELL_SIZE = 64f;
+
+	private Array<Rectangle> blocks;
+	/** The edges of the blocks packed in parallel arrays, indexed like {@link #blocks} */
+	private float[] blocksX, blocksY, blocksX2, blocksY2;
+	private float cellSize;
+	private float originX, originY;
+	private int columns, rows;
+	private int[] cellStart;
+	private int[] cellItems;
+
+	/**
+	 * Construct a new empty {@link SpatialGrid} using {@link #DEFAULT_CELL_SIZE}
+	 */
+	public SpatialGrid() {
+		this(DEFAULT_CELL_SIZE);
+	}
+
+	/**
+	 * Construct a new empty {@link SpatialGrid}
+	 * @param cellSize the width and height of one grid cell
+	 */
+	public SpatialGrid(float cellSize) {
+		this.cellSize = cellSize;
+	}
+
+	/**
+	 * Construct a new {@link SpatialGrid} and build it from given blocks
+	 * @param blocks the rectangles to index
+	 * @param cellSize the width and height of one grid cell
+	 */
+	public SpatialGrid(Array<Rectangle> blocks, float cellSize) {
+		this(cellSize);
+		build(blocks);
+	}
+
+	/**
+	 * (Re)builds the grid from given blocks
+	 * @param blocks the rectangles to index, may be null
+	 */
+	public void build(Array<Rectangle> blocks) {
+		this.blocks = blocks;
+		if(blocks == null || blocks.size == 0) {
+			this.columns = this.rows = 0;
+			this.cellStart = null;
+			this.cellItems = null;
+			return;
+		}
+
+		if(blocksX == null || blocksX.length < blocks.size) {
+			this.blocksX = new float[blocks.size];
+			this.blocksY = new float[blocks.size];
+			this.blocksX2 = new float[blocks.size];
+			this.blocksY2 = new float[blocks.size];
+		}
+		for(int i = 0; i < blocks.size; i++) {
+			Rectangle block = blocks.get(i);
+			blocksX[i] = block.x;
+			blocksY[i] = block.y;
+			blocksX2[i] = block.x + block.width;
+			blocksY2[i] = block.y + block.height;
+		}
+
+		float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+		float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+		for(Rectangle block : blocks) {
+			minX = Math.min(minX, block.x);
+			minY = Math.min(minY, block.y);
+			maxX = Math.max(maxX, block.x + block.width);
+			maxY = Math.max(maxY, block.y + block.height);
+		}
+		this.originX = minX;
+		this.originY = minY;
+		this.columns = Math.max(1, (int) Math.ceil((maxX - minX) / cellSize));
+		this.rows = Math.max(1, (int) Math.ceil((maxY - minY) / cellSize));
+
+		// First pass counts the blocks per cell, second pass fills the packed index array
+		int[] counts = new int[columns * rows + 1];
+		for(Rectangle block : blocks) {
+			int x1 = column(block.x), x2 = column(block.x + block.width);
+			int y1 = row(block.y), y2 = row(block.y + block.height);
+			for(int y = y1; y <= y2; y++) {
+				for(int x = x1; x <= x2; x++) {
+					counts[y * columns + x + 1]++;
+				}
+			}
+		}
+		for(int i = 1; i < counts.length; i++) {
+			counts[i] += counts[i - 1];
+		}
+		this.cellStart = counts;
+		this.cellItems = new int[counts[counts.length - 1]];
+		int[] fill = new int[columns * rows];
+		for(int i = 0; i < blocks.size; i++) {
+			Rectangle block = blocks.get(i);
+			int x1 = column(block.x), x2 = column(block.x + block.width);
+			int y1 = row(block.y), y2 = row(block.y + block.height);
+			for(int y = y1; y <= y2; y++) {
+				for(int x = x1; x <= x2; x++) {
+					int cell = y * columns + x;
+					cellItems[cellStart[cell] + fill[cell]++] = i;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the block overlapping given bounds. If several blocks overlap, the one that
+	 * comes first in the indexed {@link Array} is returned, just like a linear scan would.
+	 * @param bounds the bounds to check
+	 * @return the index of the overlapping block in the indexed {@link Array} or -1 if none
+	 */
+	public int firstOverlap(Rectangle bounds) {
+		if(cellStart == null || isOutside(bounds)) {
+			return -1;
+		}
+		float boundsX = bounds.x, boundsY = bounds.y;
+		float boundsX2 = bounds.x + bounds.width, boundsY2 = bounds.y + bounds.height;
+		int x1 = column(boundsX), x2 = column(boundsX2);
+		int y1 = row(boundsY), y2 = row(boundsY2);
+		int first = Integer.MAX_VALUE;
+		for(int y = y1; y <= y2; y++) {
+			for(int x = x1; x <= x2; x++) {
+				int cell = y * columns + x;
+				for(int i = cellStart[cell], end = cellStart[cell + 1]; i < end; i++) {
+					int index = cellItems[i];
+					// Same test as Rectangle.overlaps but on the packed edges
+					if(index < first && blocksX[index] < boundsX2 && blocksX2[index] > boundsX && blocksY[index] < boundsY2 && blocksY2[index] > boundsY) {
+						first = index;
+					}
+				}
+			}
+		}
+		return first == Integer.MAX_VALUE ? -1 : first;
+	}
+
+	/**
+	 * Same as {@link #firstOverlap(Rectangle)} but only testing given candidates, e.g the blocks found by
+	 * {@link #getOverlapping(float, float, float, float, IntArray)} for an area containing the bounds
+	 * @param bounds the bounds to check
+	 * @param candidates indices of blocks in ascending order
+	 * @return the index of the first overlapping candidate or -1 if none
+	 */
+	public int firstOverlap(Rectangle bounds, IntArray candidates) {
+		float boundsX = bounds.x, boundsY = bounds.y;
+		float boundsX2 = bounds.x + bounds.width, boundsY2 = bounds.y + bounds.height;
+		int[] items = candidates.items;
+		for(int i = 0, size = candidates.size; i < size; i++) {
+			int index = items[i];
+			if(blocksX[index] < boundsX2 && blocksX2[index] > boundsX && blocksY[index] < boundsY2 && blocksY2[index] > boundsY) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Finds every block overlapping given area
+	 * @param minX the left edge of the area
+	 * @param minY the bottom edge of the area
+	 * @param maxX the right edge of the area
+	 * @param maxY the top edge of the area
+	 * @param result cleared and filled with the indices of the overlapping blocks in ascending order, each index once
+	 */
+	public void getOverlapping(float minX, float minY, float maxX, float maxY, IntArray result) {
+		result.clear();
+		if(cellStart == null || isOutside(minX, minY, maxX, maxY)) {
+			return;
+		}
+		int x1 = column(minX), x2 = column(maxX);
+		int y1 = row(minY), y2 = row(maxY);
+		for(int y = y1; y <= y2; y++) {
+			for(int x = x1; x <= x2; x++) {
+				int cell = y * columns + x;
+				for(int i = cellStart[cell], end = cellStart[cell + 1]; i < end; i++) {
+					int index = cellItems[i];
+					if(blocksX[index] < maxX && blocksX2[index] > minX && blocksY[index] < maxY && blocksY2[index] > minY) {
+						result.add(index);
+					}
+				}
+			}
+		}
+		// Blocks covering several cells were added once per cell
+		result.sort();
+		int[] items = result.items;
+		int unique = 0;
+		for(int i = 0; i < result.size; i++) {
+			if(unique == 0 || items[i] != items[unique - 1]) {
+				items[unique++] = items[i];
+			}
+		}
+		result.size = unique;
+	}
+
+	/**
+	 * Batch version of {@link #firstOverlap(Rectangle)} that visits every cell once for the whole batch.
+	 * Each query is listed under every cell its bounds cover, the list is sorted by cell and then the packed
+	 * blocks of each cell are loaded once and tested against all queries in that cell. Does not allocate
+	 * once the scratch buffer has grown to fit the batch.
+	 * @param bounds the bounds of the queries
+	 * @param queries the indices in bounds of the queries to run
+	 * @param count the amount of queries, starting from index 0 of queries
+	 * @param firsts receives the index of the first overlapping block or -1 for each query, same indices as bounds
+	 * @param cellQueries scratch buffer, cleared and filled with one cell and query pair per covered cell
+	 */
+	public void firstOverlaps(Rectangle[] bounds, int[] queries, int count, int[] firsts, LongArray cellQueries) {
+		for(int i = 0; i < count; i++) {
+			firsts[queries[i]] = -1;
+		}
+		if(cellStart == null) {
+			return;
+		}
+		cellQueries.clear();
+		for(int i = 0; i < count; i++) {
+			int query = queries[i];
+			Rectangle queryBounds = bounds[query];
+			if(isOutside(queryBounds)) {
+				continue;
+			}
+			int x1 = column(queryBounds.x), x2 = column(queryBounds.x + queryBounds.width);
+			int y1 = row(queryBounds.y), y2 = row(queryBounds.y + queryBounds.height);
+			for(int y = y1; y <= y2; y++) {
+				for(int x = x1; x <= x2; x++) {
+					cellQueries.add((long) (y * columns + x) << 32 | query);
+				}
+			}
+		}
+		cellQueries.sort();
+
+		long[] pairs = cellQueries.items;
+		for(int group = 0, size = cellQueries.size; group < size;) {
+			int cell = (int) (pairs[group] >>> 32);
+			int groupEnd = group + 1;
+			while(groupEnd < size && (int) (pairs[groupEnd] >>> 32) == cell) {
+				groupEnd++;
+			}
+			for(int i = cellStart[cell], end = cellStart[cell + 1]; i < end; i++) {
+				int index = cellItems[i];
+				float blockX = blocksX[index], blockY = blocksY[index], blockX2 = blocksX2[index], blockY2 = blocksY2[index];
+				for(int j = group; j < groupEnd; j++) {
+					int query = (int) pairs[j];
+					Rectangle queryBounds = bounds[query];
+					int first = firsts[query];
+					if((first == -1 || index < first) && blockX < queryBounds.x + queryBounds.width && blockX2 > queryBounds.x && 
+					   blockY < queryBounds.y + queryBounds.height && blockY2 > queryBounds.y) {
+						firsts[query] = index;
+					}
+				}
+			}
+			group = groupEnd;
+		}
+	}
+
+	/**
+	 * @param bounds the bounds to check
+	 * @return the block overlapping given bounds, see {@link #firstOverlap(Rectangle)}, or null if none
+	 */
+	public Rectangle getOverlapping(Rectangle bounds) {
+		int index = firstOverlap(bounds);
+		return index == -1 ? null : blocks.get(index);
+	}
+
+	/**
+	 * Sweeps given bounds along a motion and finds the first block it would hit, see
+	 * {@link CollisionHandler#sweep(Rectangle, float, float, byte, SweepResult)}.
+	 * Only the cells covered by the whole motion are visited. The result is only
+	 * updated if the hit found here is earlier than the one it already holds.
+	 * @param bounds the bounds at the start of the motion
+	 * @param dx the motion along the x axis
+	 * @param dy the motion along the y axis
+	 * @param result holds the earliest hit so far and receives the hit found here, if earlier
+	 */
+	public void sweep(Rectangle bounds, float dx, float dy, SweepResult result) {
+		float minX = Math.min(bounds.x, bounds.x + dx), minY = Math.min(bounds.y, bounds.y + dy);
+		float maxX = Math.max(bounds.x, bounds.x + dx) + bounds.width, maxY = Math.max(bounds.y, bounds.y + dy) + bounds.height;
+		if(cellStart == null || isOutside(minX, minY, maxX, maxY)) {
+			return;
+		}
+		int x1 = column(minX), x2 = column(maxX);
+		int y1 = row(minY), y2 = row(maxY);
+		float firstTime = result.getTime();
+		int first = -1;
+		for(int y = y1; y <= y2; y++) {
+			for(int x = x1; x <= x2; x++) {
+				int cell = y * columns + x;
+				for(int i = cellStart[cell], end = cellStart[cell + 1]; i < end; i++) {
+					int index = cellItems[i];
+					float time = timeOfImpact(bounds, dx, dy, blocksX[index], blocksY[index], blocksX2[index], blocksY2[index]);
+					if(time < firstTime || (time == firstTime && time < 1f && first != -1 && index < first)) {
+						firstTime = time;
+						first = index;
+					}
+				}
+			}
+		}
+		if(first != -1) {
+			setHit(result, bounds, dx, dy, blocks.get(first), firstTime);
+		}
+	}
+
+	/**
+	 * Stores a swept hit in given result together with the normal of the side that was hit
+	 */
+	static void setHit(SweepResult result, Rectangle bounds, float dx, float dy, Rectangle block, float time) {
+		if(time == 0f && block.overlaps(bounds)) {
+			// Already overlapping at the start of the motion, there is no side to report
+			result.set(block, 0f, 0f, 0f);
+		} else if(entry(bounds.x, bounds.x + bounds.width, dx, block.x, block.x + block.width) > entry(bounds.y, bounds.y + bounds.height, dy, block.y, block.y + block.height)) {
+			result.set(block, time, dx > 0f ? -1f : 1f, 0f);
+		} else {
+			result.set(block, time, 0f, dy > 0f ? -1f : 1f);
+		}
+	}
+
+	/**
+	 * Swept AABB test of moving bounds against a static block using the slab method, 
+	 * the bounds must overlap the block on both axes at the same time during the motion.
+	 * @return the time of impact between 0 and 1 or {@link Float#MAX_VALUE} if the block is not hit
+	 */
+	static float timeOfImpact(Rectangle bounds, float dx, float dy, Rectangle block) {
+		return timeOfImpact(bounds, dx, dy, block.x, block.y, block.x + block.width, block.y + block.height);
+	}
+
+	/**
+	 * Same as {@link #timeOfImpact(Rectangle, float, float, Rectangle)} with the block given by its edges
+	 */
+	static float timeOfImpact(Rectangle bounds, float dx, float dy, float blockX, float blockY, float blockX2, float blockY2) {
+		float boundsX2 = bounds.x + bounds.width, boundsY2 = bounds.y + bounds.height;
+		float entry = Math.max(entry(bounds.x, boundsX2, dx, blockX, blockX2), entry(bounds.y, boundsY2, dy, blockY, blockY2));
+		float exit = Math.min(exit(bounds.x, boundsX2, dx, blockX, blockX2), exit(bounds.y, boundsY2, dy, blockY, blockY2));
+		if(entry >= exit || entry >= 1f || exit <= 0f) {
+			return Float.MAX_VALUE;
+		}
+		return entry < 0f ? 0f : entry;
+	}
+
+	/**
+	 * @return the time when the moving span starts overlapping the block span on one axis
+	 */
+	private static float entry(float min, float max, float d, float blockMin, float blockMax) {
+		if(d == 0f) {
+			return max <= blockMin || min >= blockMax ? Float.MAX_VALUE : -Float.MAX_VALUE;
+		}
+		return d > 0f ? (blockMin - max) / d : (blockMax - min) / d;
+	}
+
+	/**
+	 * @return the time when the moving span stops overlapping the block span on one axis
+	 */
+	private static float exit(float min, float max, float d, float blockMin, float blockMax) {
+		if(d == 0f) {
+			return max <= blockMin || min >= blockMax ? -Float.MAX_VALUE : Float.MAX_VALUE;
+		}
+		return d > 0f ? (blockMax - min) / d : (blockMin - max) / d;
+	}
+
+	/**
+	 * Casts a ray through the grid, see {@link CollisionHandler#raycast(float, float, float, float, float, byte, RaycastHit)}.
+	 * Walks the cells along the ray one by one (DDA) and tests the blocks of each cell with a slab test,
+	 * stopping at the first cell that contains a hit when only the closest hit is wanted.
+	 * @param originX the x position the ray starts at
+	 * @param originY the y position the ray starts at
+	 * @param directionX the x component of the normalized ray direction
+	 * @param directionY the y component of the normalized ray direction
+	 * @param maxDistance how far the ray reaches
+	 * @param hit receives the closest hit if it is closer than the one it already holds, only used if hits is null
+	 * @param hits if not null every block hit is added to it as a {@link RaycastHit} obtained from {@link Pools}
+	 */
+	public void raycast(float originX, float originY, float directionX, float directionY, float maxDistance, RaycastHit hit, Array<RaycastHit> hits) {
+		if(cellStart == null) {
+			return;
+		}
+		// Clip the ray to the grid so the walk starts in the first cell the ray enters
+		float maxX = this.originX + columns * cellSize, maxY = this.originY + rows * cellSize;
+		float start = Math.max(0f, Math.max(rayEntry(originX, directionX, this.originX, maxX), rayEntry(originY, directionY, this.originY, maxY)));
+		float end = Math.min(maxDistance, Math.min(rayExit(originX, directionX, this.originX, maxX), rayExit(originY, directionY, this.originY, maxY)));
+		if(start > end) {
+			return;
+		}
+
+		int column = column(originX + directionX * start), row = row(originY + directionY * start);
+		int stepX = directionX > 0f ? 1 : -1, stepY = directionY > 0f ? 1 : -1;
+		float nextX = directionX == 0f ? Float.MAX_VALUE : (this.originX + (column + (stepX > 0 ? 1 : 0)) * cellSize - originX) / directionX;
+		float nextY = directionY == 0f ? Float.MAX_VALUE : (this.originY + (row + (stepY > 0 ? 1 : 0)) * cellSize - originY) / directionY;
+		float deltaX = directionX == 0f ? Float.MAX_VALUE : cellSize / Math.abs(directionX);
+		float deltaY = directionY == 0f ? Float.MAX_VALUE : cellSize / Math.abs(directionY);
+		int firstHit = hits != null ? hits.size : 0;
+
+		while(true) {
+			float cellExit = Math.min(Math.min(nextX, nextY), end);
+			int cell = row * columns + column;
+			for(int i = cellStart[cell], stop = cellStart[cell + 1]; i < stop; i++) {
+				int index = cellItems[i];
+				float entryX = rayEntry(originX, directionX, blocksX[index], blocksX2[index]);
+				float entryY = rayEntry(originY, directionY, blocksY[index], blocksY2[index]);
+				float entry = Math.max(entryX, entryY);
+				float exit = Math.min(rayExit(originX, directionX, blocksX[index], blocksX2[index]), rayExit(originY, directionY, blocksY[index], blocksY2[index]));
+				if(entry >= exit || exit <= 0f || entry > maxDistance) {
+					continue;
+				}
+				float distance = Math.max(entry, 0f);
+				if(hits == null && distance >= hit.getDistance()) {
+					continue;
+				}
+				Rectangle block = blocks.get(index);
+				RaycastHit target = hit;
+				if(hits != null) {
+					if(contains(hits, firstHit, block)) {
+						continue;
+					}
+					target = Pools.obtain(RaycastHit.class);
+					hits.add(target);
+				}
+				float normalX = 0f, normalY = 0f;
+				if(entry >= 0f) {
+					if(entryX > entryY) {
+						normalX = -stepX;
+					} else {
+						normalY = -stepY;
+					}
+				}
+				target.set(block, distance, originX + directionX * distance, originY + directionY * distance, normalX, normalY);
+			}
+
+			if((hits == null && hit.getDistance() <= cellExit) || cellExit >= end) {
+				return;
+			}
+			if(nextX < nextY) {
+				column += stepX;
+				nextX += deltaX;
+			} else {
+				row += stepY;
+				nextY += deltaY;
+			}
+			if(column < 0 || row < 0 || column >= columns || row >= rows) {
+				return;
+			}
+		}
+	}
+
+	private static boolean contains(Array<RaycastHit> hits, int from, Rectangle block) {
+		for(int i = from; i < hits.size; i++) {
+			if(hits.get(i).getBlock() == block) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the distance along a ray where it enters the span between min and max on one axis
+	 */
+	static float rayEntry(float origin, float direction, float min, float max) {
+		if(direction == 0f) {
+			return origin <= min || origin >= max ? Float.MAX_VALUE : -Float.MAX_VALUE;
+		}
+		return direction > 0f ? (min - origin) / direction : (max - origin) / direction;
+	}
+
+	/**
+	 * @return the distance along a ray where it leaves the span between min and max on one axis
+	 */
+	static float rayExit(float origin, float direction, float min, float max) {
+		if(direction == 0f) {
+			return origin <= min || origin >= max ? -Float.MAX_VALUE : Float.MAX_VALUE;
+		}
+		return direction > 0f ? (max - origin) / direction : (min - origin) / direction;
+	}
+
+	/**
+	 * @param x the x position
+	 * @param y the y position
+	 * @return the index of the cell containing given position, positions outside the grid are clamped 
+	 * to the nearest cell. Cells are numbered row by row so nearby positions get nearby indices
+	 */
+	public int cellIndex(float x, float y) {
+		return cellStart == null ? 0 : row(y) * columns + column(x);
+	}
+
+	/**
+	 * @return the amount of columns of cells, 0 if the grid is empty. Cell indices are row * columns + column, see {@link #cellIndex(float, float)}
+	 */
+	public int getColumns() {
+		return columns;
+	}
+
+	/**
+	 * @return the raw packed cells, the block indices of cell i are {@link #getCellItems()} from getCellStarts()[i]
+	 * to getCellStarts()[i + 1] - 1. Null if the grid is empty. Must not be modified
+	 */
+	public int[] getCellStarts() {
+		return cellStart;
+	}
+
+	/**
+	 * @return the raw block indices of all cells, see {@link #getCellStarts()}. Must not be modified
+	 */
+	public int[] getCellItems() {
+		return cellItems;
+	}
+
+	/**
+	 * @return the blocks indexed by this grid
+	 */
+	public Array<Rectangle> getBlocks() {
+		return blocks;
+	}
+
+	/**
+	 * @return the width and height of one grid cell
+	 */
+	public float getCellSize() {
+		return cellSize;
+	}
+
+	/**
+	 * Set the width and height of one grid cell, rebuilds the grid if blocks have been set
+	 * @param cellSize
+	 */
+	public void setCellSize(float cellSize) {
+		this.cellSize = cellSize;
+		if(blocks != null) {
+			build(blocks);
+		}
+	}
+
+	private boolean isOutside(Rectangle bounds) {
+		return isOutside(bounds.x, bounds.y, bounds.x + bounds.width, bounds.y + bounds.height);
+	}
+
+	private boolean isOutside(float minX, float minY, float maxX, float maxY) {
+		return maxX < originX || maxY < originY || minX > originX + columns * cellSize || minY > originY + rows * cellSize;
+	}
+
+	private int column(float x) {
+		int column = (int) ((x - originX) / cellSize);
+		return column < 0 ? 0 : column >= columns ? columns - 1 : column;
+	}
+
+	private int row(float y) {
+		int row = (int) ((y - originY) / cellSize);
+		return row < 0 ? 0 : row >= rows ? rows - 1 : row;
+	}
+
+}
@@ -0,0 +1,91 @@
+package se.fredin.gdxtensions.collision;
+
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * Holds the result of a swept collision query made with
+ * {@link CollisionHandler#sweep(Rectangle, float, float, byte, SweepResult)}.
+ * The time of impact is a fraction of the motion between 0 and 1, so the position
+ * where the moving bounds first touches the block is start + motion * time.
+ * Instances are meant to be reused between queries.
+ * @author Johan Fredin
+ *
+ */
+public class SweepResult {
+
+	private Rectangle block;
+	private float time = 1f;
+	private float normalX, normalY;
+	private Rectangle tileBounds;
+
+	/**
+	 * Clears the result, making it a miss
+	 */
+	public void reset() {
+		this.block = null;
+		this.time = 1f;
+		this.normalX = this.normalY = 0f;
+	}
+
+	void set(Rectangle block, float time, float normalX, float normalY) {
+		this.block = block;
+		this.time = time;
+		this.normalX = normalX;
+		this.normalY = normalY;
+	}
+
+	/**
+	 * @return the {@link Rectangle} owned by this result that receives the bounds of a hit tile
+	 * when sweeping against a {@link TileCollisionLayer}
+	 */
+	Rectangle getTileBounds() {
+		if(tileBounds == null) {
+			tileBounds = new Rectangle();
+		}
+		return tileBounds;
+	}
+
+	/**
+	 * @return whether or not a block was hit
+	 */
+	public boolean isHit() {
+		return block != null;
+	}
+
+	/**
+	 * @return the first block hit along the motion or null if none was hit
+	 */
+	public Rectangle getBlock() {
+		return block;
+	}
+
+	/**
+	 * @return the fraction of the motion (0-1) travelled before hitting the block, 1 if nothing was hit
+	 */
+	public float getTime() {
+		return time;
+	}
+
+	/**
+	 * @return the x component of the surface normal of the side that was hit
+	 */
+	public float getNormalX() {
+		return normalX;
+	}
+
+	/**
+	 * @return the y component of the surface normal of the side that was hit
+	 */
+	public float getNormalY() {
+		return normalY;
+	}
+
+	@Override
+	public String toString() {
+		return "SweepResult\n" +
+			   "block=" + block + "\n" +
+			   "time=" + time + "\n" +
+			   "normal=" + normalX + "," + normalY + "\n";
+	}
+
+}
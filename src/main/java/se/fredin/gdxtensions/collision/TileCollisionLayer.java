@@ -0,0 +1,302 @@
+package se.fredin.gdxtensions.collision;
+
+import se.fredin.gdxtensions.collision.CollisionHandler.Filter;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pools;
+
+/**
+ * Collision backend for tile aligned levels. Instead of one {@link Rectangle} per block
+ * it keeps one bit per tile and {@link Filter} in a packed bitset built from one or more
+ * {@link TiledMapTileLayer}s, where every non empty cell counts as a block.
+ * A query only looks at the tiles covered by the query bounds.
+ * Use it with {@link CollisionHandler#setTileCollisionLayer(TileCollisionLayer)}.
+ * @author Johan Fredin
+ *
+ */
+public class TileCollisionLayer {
+
+	private int width, height;
+	private float tileWidth, tileHeight;
+	private long[] hardBits;
+	private long[] softBits;
+
+	/**
+	 * Construct a new empty {@link TileCollisionLayer}
+	 * @param width the amount of tiles horizontally
+	 * @param height the amount of tiles vertically
+	 * @param tileWidth the width of one tile
+	 * @param tileHeight the height of one tile
+	 */
+	public TileCollisionLayer(int width, int height, float tileWidth, float tileHeight) {
+		init(width, height, tileWidth, tileHeight);
+	}
+
+	private void init(int width, int height, float tileWidth, float tileHeight) {
+		this.width = width;
+		this.height = height;
+		this.tileWidth = tileWidth;
+		this.tileHeight = tileHeight;
+		int words = (width * height + 63) >>> 6;
+		this.hardBits = new long[words];
+		this.softBits = new long[words];
+	}
+
+	/**
+	 * Construct a new {@link TileCollisionLayer} where all tiles of given layer are hard blocks
+	 * @param hardLayer the layer containing the hard blocks
+	 */
+	public TileCollisionLayer(TiledMapTileLayer hardLayer) {
+		this(hardLayer, null);
+	}
+
+	/**
+	 * Construct a new {@link TileCollisionLayer} from a hard and a soft block layer.
+	 * Both layers must have the same dimensions.
+	 * @param hardLayer the layer containing the hard blocks, may be null
+	 * @param softLayer the layer containing the soft blocks, may be null
+	 */
+	public TileCollisionLayer(TiledMapTileLayer hardLayer, TiledMapTileLayer softLayer) {
+		TiledMapTileLayer layer = hardLayer != null ? hardLayer : softLayer;
+		init(layer.getWidth(), layer.getHeight(), layer.getTileWidth(), layer.getTileHeight());
+		if(hardLayer != null) {
+			addLayer(hardLayer, Filter.HARD);
+		}
+		if(softLayer != null) {
+			addLayer(softLayer, Filter.SOFT);
+		}
+	}
+
+	/**
+	 * Marks every non empty cell of given layer as a block of given type
+	 * @param layer the layer to read, must have the same dimensions as this collision layer
+	 * @param filter the type of block the cells should be, {@link Filter#HARD} and/or {@link Filter#SOFT}
+	 */
+	public void addLayer(TiledMapTileLayer layer, byte filter) {
+		for(int y = 0; y < height; y++) {
+			for(int x = 0; x < width; x++) {
+				if(layer.getCell(x, y) != null) {
+					setBlock(x, y, filter, true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Mark or unmark a tile as a block
+	 * @param x the tile column
+	 * @param y the tile row
+	 * @param filter the type of block, {@link Filter#HARD} and/or {@link Filter#SOFT}
+	 * @param isBlock whether the tile should be a block or not
+	 * @throws IllegalArgumentException if the tile is outside the layer
+	 */
+	public void setBlock(int x, int y, byte filter, boolean isBlock) {
+		if(x < 0 || y < 0 || x >= width || y >= height) {
+			throw new IllegalArgumentException("tile " + x + "," + y + " is outside the layer of " + width + "x" + height + " tiles");
+		}
+		int index = y * width + x;
+		if((filter&Filter.HARD) == Filter.HARD) {
+			set(hardBits, index, isBlock);
+		}
+		if((filter&Filter.SOFT) == Filter.SOFT) {
+			set(softBits, index, isBlock);
+		}
+	}
+
+	/**
+	 * @param x the tile column
+	 * @param y the tile row
+	 * @param filter the type of block, {@link Filter#HARD} and/or {@link Filter#SOFT}
+	 * @return whether or not the tile is a block of any of the given types. Tiles outside the layer are never blocks
+	 */
+	public boolean isBlock(int x, int y, byte filter) {
+		if(x < 0 || y < 0 || x >= width || y >= height) {
+			return false;
+		}
+		int index = y * width + x;
+		return ((filter&Filter.HARD) == Filter.HARD && get(hardBits, index)) ||
+			   ((filter&Filter.SOFT) == Filter.SOFT && get(softBits, index));
+	}
+
+	/**
+	 * Finds the first tile block overlapping given bounds, going row by row from the bottom left.
+	 * @param bounds the bounds to check
+	 * @param filter the type of blocks to check against
+	 * @param tileBounds receives the bounds of the overlapping tile
+	 * @return true if a tile block overlaps given bounds
+	 */
+	public boolean getBoundsAt(Rectangle bounds, byte filter, Rectangle tileBounds) {
+		// Rectangle.overlaps is exclusive so a tile only touching the bounds edge is not included
+		int x1 = Math.max(0, (int) Math.floor(bounds.x / tileWidth));
+		int x2 = Math.min(width - 1, (int) Math.ceil((bounds.x + bounds.width) / tileWidth) - 1);
+		int y1 = Math.max(0, (int) Math.floor(bounds.y / tileHeight));
+		int y2 = Math.min(height - 1, (int) Math.ceil((bounds.y + bounds.height) / tileHeight) - 1);
+		for(int y = y1; y <= y2; y++) {
+			for(int x = x1; x <= x2; x++) {
+				if(isBlock(x, y, filter)) {
+					tileBounds.set(x * tileWidth, y * tileHeight, tileWidth, tileHeight);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Sweeps given bounds along a motion and finds the first tile block it would hit, see
+	 * {@link CollisionHandler#sweep(Rectangle, float, float, byte, SweepResult)}.
+	 * The result is only updated if the hit found here is earlier than the one it already holds.
+	 * @param bounds the bounds at the start of the motion
+	 * @param dx the motion along the x axis
+	 * @param dy the motion along the y axis
+	 * @param filter the type of blocks to check against
+	 * @param result holds the earliest hit so far and receives the hit found here, if earlier
+	 */
+	public void sweep(Rectangle bounds, float dx, float dy, byte filter, SweepResult result) {
+		float minX = Math.min(bounds.x, bounds.x + dx), minY = Math.min(bounds.y, bounds.y + dy);
+		float maxX = Math.max(bounds.x, bounds.x + dx) + bounds.width, maxY = Math.max(bounds.y, bounds.y + dy) + bounds.height;
+		int x1 = Math.max(0, (int) Math.floor(minX / tileWidth));
+		int x2 = Math.min(width - 1, (int) Math.ceil(maxX / tileWidth) - 1);
+		int y1 = Math.max(0, (int) Math.floor(minY / tileHeight));
+		int y2 = Math.min(height - 1, (int) Math.ceil(maxY / tileHeight) - 1);
+		Rectangle tile = result.getTileBounds();
+		float firstTime = result.getTime();
+		int firstX = -1, firstY = -1;
+		for(int y = y1; y <= y2; y++) {
+			for(int x = x1; x <= x2; x++) {
+				if(isBlock(x, y, filter)) {
+					tile.set(x * tileWidth, y * tileHeight, tileWidth, tileHeight);
+					float time = SpatialGrid.timeOfImpact(bounds, dx, dy, tile);
+					if(time < firstTime) {
+						firstTime = time;
+						firstX = x;
+						firstY = y;
+					}
+				}
+			}
+		}
+		if(firstX != -1) {
+			tile.set(firstX * tileWidth, firstY * tileHeight, tileWidth, tileHeight);
+			SpatialGrid.setHit(result, bounds, dx, dy, tile, firstTime);
+		}
+	}
+
+	/**
+	 * Casts a ray through the layer, see {@link CollisionHandler#raycast(float, float, float, float, float, byte, RaycastHit)}.
+	 * Walks the tiles along the ray one by one (DDA) and stops at the first tile block when only the closest hit is wanted.
+	 * @param originX the x position the ray starts at
+	 * @param originY the y position the ray starts at
+	 * @param directionX the x component of the normalized ray direction
+	 * @param directionY the y component of the normalized ray direction
+	 * @param maxDistance how far the ray reaches
+	 * @param filter the type of blocks to check against
+	 * @param hit receives the closest hit if it is closer than the one it already holds, only used if hits is null
+	 * @param hits if not null every tile block hit is added to it as a {@link RaycastHit} obtained from {@link Pools}
+	 */
+	public void raycast(float originX, float originY, float directionX, float directionY, float maxDistance, byte filter, RaycastHit hit, Array<RaycastHit> hits) {
+		float maxX = width * tileWidth, maxY = height * tileHeight;
+		float entryX = SpatialGrid.rayEntry(originX, directionX, 0f, maxX);
+		float entryY = SpatialGrid.rayEntry(originY, directionY, 0f, maxY);
+		float start = Math.max(0f, Math.max(entryX, entryY));
+		float end = Math.min(maxDistance, Math.min(SpatialGrid.rayExit(originX, directionX, 0f, maxX), SpatialGrid.rayExit(originY, directionY, 0f, maxY)));
+		if(start > end) {
+			return;
+		}
+
+		int x = Math.min(width - 1, Math.max(0, (int) Math.floor((originX + directionX * start) / tileWidth)));
+		int y = Math.min(height - 1, Math.max(0, (int) Math.floor((originY + directionY * start) / tileHeight)));
+		int stepX = directionX > 0f ? 1 : -1, stepY = directionY > 0f ? 1 : -1;
+		float nextX = directionX == 0f ? Float.MAX_VALUE : ((x + (stepX > 0 ? 1 : 0)) * tileWidth - originX) / directionX;
+		float nextY = directionY == 0f ? Float.MAX_VALUE : ((y + (stepY > 0 ? 1 : 0)) * tileHeight - originY) / directionY;
+		float deltaX = directionX == 0f ? Float.MAX_VALUE : tileWidth / Math.abs(directionX);
+		float deltaY = directionY == 0f ? Float.MAX_VALUE : tileHeight / Math.abs(directionY);
+		// The normal of the tile side the ray entered through, none if the ray starts inside the tile
+		float normalX = 0f, normalY = 0f;
+		if(start > 0f) {
+			if(entryX > entryY) {
+				normalX = -stepX;
+			} else {
+				normalY = -stepY;
+			}
+		}
+		float distance = start;
+
+		while(true) {
+			if(isBlock(x, y, filter)) {
+				if(hits == null && distance >= hit.getDistance()) {
+					return;
+				}
+				RaycastHit target = hit;
+				if(hits != null) {
+					target = Pools.obtain(RaycastHit.class);
+					hits.add(target);
+				}
+				Rectangle tile = target.getTileBounds().set(x * tileWidth, y * tileHeight, tileWidth, tileHeight);
+				target.set(tile, distance, originX + directionX * distance, originY + directionY * distance, normalX, normalY);
+				if(hits == null) {
+					return;
+				}
+			}
+
+			if(nextX < nextY) {
+				distance = nextX;
+				x += stepX;
+				nextX += deltaX;
+				normalX = -stepX;
+				normalY = 0f;
+			} else {
+				distance = nextY;
+				y += stepY;
+				nextY += deltaY;
+				normalX = 0f;
+				normalY = -stepY;
+			}
+			if(distance >= end || x < 0 || y < 0 || x >= width || y >= height) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return the amount of tiles horizontally
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return the amount of tiles vertically
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * @return the width of one tile
+	 */
+	public float getTileWidth() {
+		return tileWidth;
+	}
+
+	/**
+	 * @return the height of one tile
+	 */
+	public float getTileHeight() {
+		return tileHeight;
+	}
+
+	private static boolean get(long[] bits, int index) {
+		return (bits[index >>> 6] & (1L << index)) != 0L;
+	}
+
+	private static void set(long[] bits, int index, boolean value) {
+		if(value) {
+			bits[index >>> 6] |= 1L << index;
+		} else {
+			bits[index >>> 6] &= ~(1L << index);
+		}
+	}
+
+}
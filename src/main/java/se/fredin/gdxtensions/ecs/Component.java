@@ -0,0 +1,14 @@
+package se.fredin.gdxtensions.ecs;
+
+import com.badlogic.gdx.utils.Pool.Poolable;
+
+/**
+ * Plain data attached to an entity of an {@link EntityWorld}. Components hold no logic, that lives in the
+ * {@link EntitySystem}s. They are pooled and reused when removed, so {@link #reset()} must clear every field
+ * and the class needs a public no argument constructor.
+ * @author Johan Fredin
+ *
+ */
+public interface Component extends Poolable {
+
+}
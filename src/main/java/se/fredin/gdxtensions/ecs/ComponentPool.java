@@ -0,0 +1,141 @@
+package se.fredin.gdxtensions.ecs;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.ReflectionPool;
+
+/**
+ * Holds every {@link Component} of one type in an {@link EntityWorld}. The components are kept in a dense array
+ * together with the entity owning each of them, so systems can loop over them without gaps. A sparse array
+ * maps an entity to its component. Removing a component moves the last one into its place and frees it to
+ * a {@link Pool} so it can be reused.
+ * @author Johan Fredin
+ *
+ * @param <T> the type of component
+ */
+public class ComponentPool<T extends Component> {
+	
+	private static final int NONE = -1;
+	
+	private final Class<T> type;
+	private final Pool<T> pool;
+	private T[] components;
+	private int[] entities;
+	private int[] sparse;
+	private int size;
+	
+	/**
+	 * Construct a new {@link ComponentPool}, use {@link EntityWorld#getPool(Class)} instead
+	 * @param type the type of component
+	 */
+	@SuppressWarnings("unchecked")
+	ComponentPool(Class<T> type) {
+		this.type = type;
+		this.pool = new ReflectionPool<>(type);
+		this.components = (T[]) java.lang.reflect.Array.newInstance(type, 16);
+		this.entities = new int[16];
+		this.sparse = new int[16];
+		Arrays.fill(sparse, NONE);
+	}
+	
+	/**
+	 * Adds a component to an entity, replacing the one it already had
+	 * @param entity the entity
+	 * @return the new component, with every field reset
+	 */
+	public T add(int entity) {
+		if(has(entity)) {
+			T component = components[sparse[entity]];
+			component.reset();
+			return component;
+		}
+		if(entity >= sparse.length) {
+			int length = sparse.length;
+			sparse = Arrays.copyOf(sparse, Math.max(entity + 1, length * 2));
+			Arrays.fill(sparse, length, sparse.length, NONE);
+		}
+		if(size == components.length) {
+			components = Arrays.copyOf(components, size * 2);
+			entities = Arrays.copyOf(entities, size * 2);
+		}
+		T component = pool.obtain();
+		components[size] = component;
+		entities[size] = entity;
+		sparse[entity] = size++;
+		return component;
+	}
+	
+	/**
+	 * Removes the component of an entity and frees it for reuse
+	 * @param entity the entity
+	 */
+	public void remove(int entity) {
+		if(!has(entity)) {
+			return;
+		}
+		int index = sparse[entity];
+		T component = components[index];
+		int last = --size;
+		components[index] = components[last];
+		entities[index] = entities[last];
+		sparse[entities[index]] = index;
+		components[last] = null;
+		sparse[entity] = NONE;
+		pool.free(component);
+	}
+	
+	/**
+	 * @param entity the entity
+	 * @return whether or not the entity has this type of component
+	 */
+	public boolean has(int entity) {
+		return entity >= 0 && entity < sparse.length && sparse[entity] != NONE;
+	}
+	
+	/**
+	 * @param entity the entity
+	 * @return the component of the entity or null if it has none
+	 */
+	public T get(int entity) {
+		return has(entity) ? components[sparse[entity]] : null;
+	}
+	
+	/**
+	 * @return the amount of entities with this type of component
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * @param index 0 to {@link #size()} - 1
+	 * @return the component at given index of the dense array
+	 */
+	public T getComponentAt(int index) {
+		return components[index];
+	}
+	
+	/**
+	 * @param index 0 to {@link #size()} - 1
+	 * @return the entity owning the component at given index of the dense array
+	 */
+	public int getEntityAt(int index) {
+		return entities[index];
+	}
+	
+	/**
+	 * @return the type of component
+	 */
+	public Class<T> getType() {
+		return type;
+	}
+	
+	@Override
+	public String toString() {
+		return "ComponentPool\n" +
+			   "type=" + type.getSimpleName() + "\n" +
+			   "size=" + size + "\n";
+	}
+
+}
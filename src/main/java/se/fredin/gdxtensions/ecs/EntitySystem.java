@@ -0,0 +1,48 @@
+package se.fredin.gdxtensions.ecs;
+
+/**
+ * Logic run once per frame by an {@link EntityWorld}, in the order the systems were added.
+ * @author Johan Fredin
+ *
+ */
+public abstract class EntitySystem {
+	
+	protected EntityWorld world;
+	private boolean isEnabled = true;
+	
+	/**
+	 * Called when the system is added to a world, look up the {@link ComponentPool}s needed here
+	 * @param world the world the system was added to
+	 */
+	protected void added(EntityWorld world) {
+		this.world = world;
+	}
+	
+	/**
+	 * Updates the system
+	 * @param deltaTime the time interval since the last rendering occurred
+	 */
+	public abstract void update(float deltaTime);
+	
+	/**
+	 * @return whether or not the system is updated by the world
+	 */
+	public boolean isEnabled() {
+		return isEnabled;
+	}
+	
+	/**
+	 * @param isEnabled whether or not the system should be updated by the world
+	 */
+	public void setEnabled(boolean isEnabled) {
+		this.isEnabled = isEnabled;
+	}
+	
+	/**
+	 * @return the world the system was added to
+	 */
+	public EntityWorld getWorld() {
+		return world;
+	}
+
+}
@@ -0,0 +1,211 @@
+package se.fredin.gdxtensions.ecs;
+
+import java.util.Arrays;
+
+import se.fredin.gdxtensions.object.GameObjectBase;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Entry point of the entity component system. An entity is only an int id, what it is and does comes from 
+ * the {@link Component}s added to it, which are kept per type in {@link ComponentPool}s, and the {@link EntitySystem}s
+ * processing the entities having certain components. Instead of every enemy inheriting jumping, teleporting, health and
+ * input from {@link se.fredin.gdxtensions.object.RichGameObject} and getting its own virtual tick call, 
+ * an enemy only gets the components it needs and each system loops over dense arrays of them.
+ * <br>
+ * Ids of destroyed entities are recycled. Destroying is deferred until the running system is done,
+ * so systems can destroy entities while iterating. Existing game objects can join the world with 
+ * {@link #adapt(GameObjectBase)} and are then ticked and rendered by a {@link GameObjectSystem}.
+ * @author Johan Fredin
+ *
+ */
+public class EntityWorld {
+	
+	private ObjectMap<Class<?>, ComponentPool<?>> pools = new ObjectMap<>();
+	private Array<ComponentPool<?>> poolList = new Array<>();
+	private Array<EntitySystem> systems = new Array<>();
+	private IntArray freeEntities = new IntArray();
+	private IntArray destroyedEntities = new IntArray();
+	private boolean[] alive = new boolean[64];
+	private int entityCount;
+	private int nextEntity;
+	private boolean isUpdating;
+	private ComponentPool<GameObjectComponent> gameObjects;
+	
+	/**
+	 * Construct a new empty {@link EntityWorld}
+	 */
+	public EntityWorld() {
+		this.gameObjects = getPool(GameObjectComponent.class);
+	}
+	
+	/**
+	 * Creates a new entity without any components, reusing the id of a destroyed entity if there is one
+	 * @return the new entity
+	 */
+	public int create() {
+		int entity;
+		if(freeEntities.size > 0) {
+			entity = freeEntities.pop();
+		} else {
+			entity = nextEntity++;
+			if(entity == alive.length) {
+				alive = Arrays.copyOf(alive, entity * 2);
+			}
+		}
+		alive[entity] = true;
+		entityCount++;
+		return entity;
+	}
+	
+	/**
+	 * Destroys an entity and removes all its components once the running system is done,
+	 * or right away if no system is running
+	 * @param entity the entity
+	 */
+	public void destroy(int entity) {
+		if(isAlive(entity) && !destroyedEntities.contains(entity)) {
+			destroyedEntities.add(entity);
+			if(!isUpdating) {
+				flushDestroyed();
+			}
+		}
+	}
+	
+	/**
+	 * @param entity the entity
+	 * @return whether the entity exists and is not destroyed. Note that the id may have been recycled
+	 * by a new entity if the old one was destroyed
+	 */
+	public boolean isAlive(int entity) {
+		return entity >= 0 && entity < nextEntity && alive[entity];
+	}
+	
+	/**
+	 * @param type the type of component
+	 * @return the {@link ComponentPool} holding every component of given type, created the first time it is asked for
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Component> ComponentPool<T> getPool(Class<T> type) {
+		ComponentPool<T> pool = (ComponentPool<T>) pools.get(type);
+		if(pool == null) {
+			pool = new ComponentPool<>(type);
+			pools.put(type, pool);
+			poolList.add(pool);
+		}
+		return pool;
+	}
+	
+	/**
+	 * Adds a component to an entity, see {@link ComponentPool#add(int)}
+	 * @param entity the entity
+	 * @param type the type of component
+	 * @return the new component
+	 */
+	public <T extends Component> T add(int entity, Class<T> type) {
+		return getPool(type).add(entity);
+	}
+	
+	/**
+	 * @param entity the entity
+	 * @param type the type of component
+	 * @return the component of given type of the entity or null if it has none
+	 */
+	public <T extends Component> T get(int entity, Class<T> type) {
+		return getPool(type).get(entity);
+	}
+	
+	/**
+	 * Removes a component from an entity
+	 * @param entity the entity
+	 * @param type the type of component
+	 */
+	public void remove(int entity, Class<? extends Component> type) {
+		getPool(type).remove(entity);
+	}
+	
+	/**
+	 * Makes an existing game object part of the world by creating an entity holding it in a {@link GameObjectComponent}.
+	 * Add a {@link GameObjectSystem} to tick and render it.
+	 * @param gameObject the game object to adapt
+	 * @return the new entity
+	 */
+	public int adapt(GameObjectBase gameObject) {
+		int entity = create();
+		gameObjects.add(entity).setGameObject(gameObject);
+		return entity;
+	}
+	
+	/**
+	 * Adds a system, systems are updated in the order they were added
+	 * @param system the system to add
+	 */
+	public void addSystem(EntitySystem system) {
+		systems.add(system);
+		system.added(this);
+	}
+	
+	/**
+	 * @param type the type of system
+	 * @return the first added system of given type or null if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends EntitySystem> T getSystem(Class<T> type) {
+		for(EntitySystem system : systems) {
+			if(type.isInstance(system)) {
+				return (T) system;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Updates every enabled system in order, destroying the entities marked for destruction after each one
+	 * @param deltaTime the time interval since the last rendering occurred
+	 */
+	public void update(float deltaTime) {
+		isUpdating = true;
+		try {
+			for(int i = 0; i < systems.size; i++) {
+				EntitySystem system = systems.get(i);
+				if(system.isEnabled()) {
+					system.update(deltaTime);
+					flushDestroyed();
+				}
+			}
+		} finally {
+			isUpdating = false;
+		}
+	}
+	
+	private void flushDestroyed() {
+		for(int i = 0; i < destroyedEntities.size; i++) {
+			int entity = destroyedEntities.get(i);
+			for(int j = 0; j < poolList.size; j++) {
+				poolList.get(j).remove(entity);
+			}
+			alive[entity] = false;
+			freeEntities.add(entity);
+			entityCount--;
+		}
+		destroyedEntities.clear();
+	}
+	
+	/**
+	 * @return the amount of living entities
+	 */
+	public int getEntityCount() {
+		return entityCount;
+	}
+	
+	@Override
+	public String toString() {
+		return "EntityWorld\n" +
+			   "entities=" + entityCount + "\n" +
+			   "component types=" + poolList.size + "\n" +
+			   "systems=" + systems.size + "\n";
+	}
+
+}
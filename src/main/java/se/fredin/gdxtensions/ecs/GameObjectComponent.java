@@ -0,0 +1,33 @@
+package se.fredin.gdxtensions.ecs;
+
+import se.fredin.gdxtensions.object.GameObjectBase;
+
+/**
+ * Holds an existing game object adapted into an {@link EntityWorld} with {@link EntityWorld#adapt(GameObjectBase)}
+ * @author Johan Fredin
+ *
+ */
+public class GameObjectComponent implements Component {
+	
+	private GameObjectBase gameObject;
+	
+	@Override
+	public void reset() {
+		this.gameObject = null;
+	}
+	
+	/**
+	 * @return the adapted game object
+	 */
+	public GameObjectBase getGameObject() {
+		return gameObject;
+	}
+	
+	/**
+	 * @param gameObject the adapted game object
+	 */
+	public void setGameObject(GameObjectBase gameObject) {
+		this.gameObject = gameObject;
+	}
+
+}
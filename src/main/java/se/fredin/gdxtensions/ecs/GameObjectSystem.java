@@ -0,0 +1,44 @@
+package se.fredin.gdxtensions.ecs;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * Ticks and renders the game objects adapted into an {@link EntityWorld}, so existing
+ * {@link se.fredin.gdxtensions.object.GameObjectBase}s can run next to the entities made of components
+ * while they are moved over one by one.
+ * @author Johan Fredin
+ *
+ */
+public class GameObjectSystem extends IteratingSystem {
+	
+	private ComponentPool<GameObjectComponent> gameObjects;
+	
+	/**
+	 * Construct a new {@link GameObjectSystem}
+	 */
+	public GameObjectSystem() {
+		super(GameObjectComponent.class);
+	}
+	
+	@Override
+	protected void added(EntityWorld world) {
+		super.added(world);
+		this.gameObjects = world.getPool(GameObjectComponent.class);
+	}
+	
+	@Override
+	protected void processEntity(int entity, float deltaTime) {
+		gameObjects.get(entity).getGameObject().tick(deltaTime);
+	}
+	
+	/**
+	 * Renders every adapted game object
+	 * @param batch the sprite batch responsible for drawing
+	 */
+	public void render(SpriteBatch batch) {
+		for(int i = 0; i < gameObjects.size(); i++) {
+			gameObjects.getComponentAt(i).getGameObject().render(batch);
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+package se.fredin.gdxtensions.ecs;
+
+import java.util.Arrays;
+
+/**
+ * An {@link EntitySystem} that processes every entity having all of a set of components.
+ * It loops over the dense array of the smallest of the required {@link ComponentPool}s
+ * and skips the entities missing any of the other components.
+ * @author Johan Fredin
+ *
+ */
+public abstract class IteratingSystem extends EntitySystem {
+	
+	private Class<? extends Component>[] requiredTypes;
+	private ComponentPool<?>[] required;
+	
+	/**
+	 * Construct a new {@link IteratingSystem}
+	 * @param requiredTypes the types of components an entity must have to be processed, copied so the caller may reuse the array
+	 */
+	@SafeVarargs
+	public IteratingSystem(Class<? extends Component>... requiredTypes) {
+		this.requiredTypes = Arrays.copyOf(requiredTypes, requiredTypes.length);
+	}
+	
+	@Override
+	protected void added(EntityWorld world) {
+		super.added(world);
+		this.required = new ComponentPool<?>[requiredTypes.length];
+		for(int i = 0; i < requiredTypes.length; i++) {
+			required[i] = world.getPool(requiredTypes[i]);
+		}
+	}
+	
+	@Override
+	public void update(float deltaTime) {
+		if(required.length == 0) {
+			return;
+		}
+		ComponentPool<?> smallest = required[0];
+		for(int i = 1; i < required.length; i++) {
+			if(required[i].size() < smallest.size()) {
+				smallest = required[i];
+			}
+		}
+		
+		outer:
+		for(int i = 0; i < smallest.size(); i++) {
+			int entity = smallest.getEntityAt(i);
+			for(ComponentPool<?> pool : required) {
+				if(pool != smallest && !pool.has(entity)) {
+					continue outer;
+				}
+			}
+			processEntity(entity, deltaTime);
+		}
+	}
+	
+	/**
+	 * Processes one entity having all the required components. Destroying entities here is safe since 
+	 * the world only destroys them after the system is done, but adding or removing components of the
+	 * required types is not.
+	 * @param entity the entity
+	 * @param deltaTime the time interval since the last rendering occurred
+	 */
+	protected abstract void processEntity(int entity, float deltaTime);
+
+}
@@ -0,0 +1,35 @@
+package se.fredin.gdxtensions.ecs;
+
+/**
+ * Moves every entity having a {@link PositionComponent} and a {@link VelocityComponent} by its velocity
+ * @author Johan Fredin
+ *
+ */
+public class MovementSystem extends IteratingSystem {
+	
+	private ComponentPool<PositionComponent> positions;
+	private ComponentPool<VelocityComponent> velocities;
+	
+	/**
+	 * Construct a new {@link MovementSystem}
+	 */
+	public MovementSystem() {
+		super(PositionComponent.class, VelocityComponent.class);
+	}
+	
+	@Override
+	protected void added(EntityWorld world) {
+		super.added(world);
+		this.positions = world.getPool(PositionComponent.class);
+		this.velocities = world.getPool(VelocityComponent.class);
+	}
+	
+	@Override
+	protected void processEntity(int entity, float deltaTime) {
+		PositionComponent position = positions.get(entity);
+		VelocityComponent velocity = velocities.get(entity);
+		position.x += velocity.x * deltaTime;
+		position.y += velocity.y * deltaTime;
+	}
+
+}
@@ -0,0 +1,17 @@
+package se.fredin.gdxtensions.ecs;
+
+/**
+ * The position of an entity
+ * @author Johan Fredin
+ *
+ */
+public class PositionComponent implements Component {
+	
+	public float x, y;
+	
+	@Override
+	public void reset() {
+		this.x = this.y = 0f;
+	}
+
+}
@@ -0,0 +1,17 @@
+package se.fredin.gdxtensions.ecs;
+
+/**
+ * The velocity of an entity, in units per second
+ * @author Johan Fredin
+ *
+ */
+public class VelocityComponent implements Component {
+	
+	public float x, y;
+	
+	@Override
+	public void reset() {
+		this.x = this.y = 0f;
+	}
+
+}
@@ -13,6 +13,20 @@ import com.badlogic.gdx.InputProcessor;
  */
 public class BaseInput implements InputProcessor {
 
+	/** Bits of the state returned by {@link #getState()} */
+	public static final int EXIT = 1;
+	public static final int LEFT = 1 << 1;
+	public static final int RIGHT = 1 << 2;
+	public static final int UP = 1 << 3;
+	public static final int DOWN = 1 << 4;
+	public static final int SHOOT = 1 << 5;
+	public static final int INTERACT = 1 << 6;
+	public static final int MENU = 1 << 7;
+	public static final int MAP = 1 << 8;
+	public static final int PAUSE = 1 << 9;
+	public static final int CROUCH = 1 << 10;
+	public static final int JUMP = 1 << 11;
+	
 	protected boolean exitButtonPressed;
 	protected boolean leftButtonPressed;
 	protected boolean rightButtonPressed;
@@ -203,6 +217,45 @@ public class BaseInput implements InputProcessor {
 		return false;
 	}
 	
+	/**
+	 * @return every button pressed packed into one int, one bit per button, for recording and replaying input
+	 */
+	public int getState() {
+		int state = 0;
+		state |= exitButtonPressed ? EXIT : 0;
+		state |= leftButtonPressed ? LEFT : 0;
+		state |= rightButtonPressed ? RIGHT : 0;
+		state |= upButtonPressed ? UP : 0;
+		state |= downButtonPressed ? DOWN : 0;
+		state |= shootButtonPressed ? SHOOT : 0;
+		state |= interactButtonPressed ? INTERACT : 0;
+		state |= menuButtonPressed ? MENU : 0;
+		state |= mapButtonPressed ? MAP : 0;
+		state |= pauseButtonPressed ? PAUSE : 0;
+		state |= crouchButtonPressed ? CROUCH : 0;
+		state |= jumpButtonPressed ? JUMP : 0;
+		return state;
+	}
+	
+	/**
+	 * Presses exactly the buttons in given state, as returned by {@link #getState()}
+	 * @param state the buttons to press, one bit per button
+	 */
+	public void setState(int state) {
+		exitButtonPressed = (state & EXIT) != 0;
+		leftButtonPressed = (state & LEFT) != 0;
+		rightButtonPressed = (state & RIGHT) != 0;
+		upButtonPressed = (state & UP) != 0;
+		downButtonPressed = (state & DOWN) != 0;
+		shootButtonPressed = (state & SHOOT) != 0;
+		interactButtonPressed = (state & INTERACT) != 0;
+		menuButtonPressed = (state & MENU) != 0;
+		mapButtonPressed = (state & MAP) != 0;
+		pauseButtonPressed = (state & PAUSE) != 0;
+		crouchButtonPressed = (state & CROUCH) != 0;
+		jumpButtonPressed = (state & JUMP) != 0;
+	}
+	
 	/**
 	 * @return whether or not any movement key was pressed (use to detect if a player is not moving for ex)
 	 */
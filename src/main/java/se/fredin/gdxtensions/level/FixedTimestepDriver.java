@@ -0,0 +1,252 @@
+package se.fredin.gdxtensions.level;
+
+import java.util.Arrays;
+
+import se.fredin.gdxtensions.object.BasicGameObject;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Drives a {@link LevelBase} with a fixed simulation step instead of the variable frame delta, so that gravity,
+ * acceleration and everything else ticking in the level behaves the same no matter the frame rate.
+ * The frame delta is added to an accumulator and {@link LevelBase#tick(float)} is called with the fixed step
+ * as many times as fit in it. What is left over becomes {@link #getAlpha()}, how far we are into the next step.
+ * <br>
+ * Game objects added with {@link #addInterpolated(Array)} are rendered in between their previous and current position:
+ * {@link #render(SpriteBatch)} moves them to {@link BasicGameObject#getInterpolatedX(float)} and 
+ * {@link BasicGameObject#getInterpolatedY(float)}, renders the level and moves them back, so levels and objects
+ * drawing at their position are interpolated without any changes. Their bounds are not moved.
+ * <br>
+ * To not end up in a spiral where slow steps cause even more steps the next frame, at most 
+ * {@link #getMaxStepsPerFrame()} steps are taken per frame and the time that did not fit is dropped, 
+ * making the game run in slow motion instead.
+ * <br>
+ * Typical use from the render method of a screen, or let a {@link se.fredin.gdxtensions.screen.BaseScreen} do it 
+ * with {@link se.fredin.gdxtensions.screen.BaseScreen#setFixedTimestep(LevelBase)}:
+ * <pre>
+ * driver.update(delta);
+ * driver.render(batch);
+ * </pre>
+ * @author Johan Fredin
+ *
+ */
+public class FixedTimestepDriver {
+	
+	/** Default amount of simulation steps per second. Value={@value #DEFAULT_STEPS_PER_SECOND} */
+	public static final int DEFAULT_STEPS_PER_SECOND = 60;
+	/** Default maximum amount of simulation steps per frame. Value={@value #DEFAULT_MAX_STEPS_PER_FRAME} */
+	public static final int DEFAULT_MAX_STEPS_PER_FRAME = 5;
+	
+	private LevelBase level;
+	private Array<Array<? extends BasicGameObject>> interpolatedObjects;
+	private float stepTime;
+	private int maxStepsPerFrame;
+	private float accumulator;
+	private float alpha;
+	private int lastStepCount;
+	private long droppedSteps;
+	/** The current positions of the interpolated objects while rendering, two floats per object */
+	private float[] renderPositions = new float[32];
+	
+	/**
+	 * Construct a new {@link FixedTimestepDriver} stepping {@link #DEFAULT_STEPS_PER_SECOND} times per second
+	 * @param level the level to drive
+	 */
+	public FixedTimestepDriver(LevelBase level) {
+		this(level, DEFAULT_STEPS_PER_SECOND, DEFAULT_MAX_STEPS_PER_FRAME);
+	}
+	
+	/**
+	 * Construct a new {@link FixedTimestepDriver}
+	 * @param level the level to drive
+	 * @param stepsPerSecond how many simulation steps to take per second
+	 * @param maxStepsPerFrame the maximum amount of steps to catch up with in one frame
+	 */
+	public FixedTimestepDriver(LevelBase level, int stepsPerSecond, int maxStepsPerFrame) {
+		this.level = level;
+		this.interpolatedObjects = new Array<>();
+		setStepsPerSecond(stepsPerSecond);
+		setMaxStepsPerFrame(maxStepsPerFrame);
+	}
+	
+	/**
+	 * Adds game objects whose previous positions should be stored before every step, so they can be interpolated when rendering.
+	 * The {@link Array} is kept, so objects added to or removed from it later are picked up.
+	 * @param gameObjects the objects to interpolate
+	 */
+	public void addInterpolated(Array<? extends BasicGameObject> gameObjects) {
+		interpolatedObjects.add(gameObjects);
+	}
+	
+	/**
+	 * Stops storing the previous positions of given game objects
+	 * @param gameObjects the objects added with {@link #addInterpolated(Array)}
+	 */
+	public void removeInterpolated(Array<? extends BasicGameObject> gameObjects) {
+		interpolatedObjects.removeValue(gameObjects, true);
+	}
+	
+	/**
+	 * Advances the simulation by the time of one frame, in fixed steps
+	 * @param deltaTime the time interval since last rendering occurred
+	 * @return the amount of steps taken
+	 */
+	public int update(float deltaTime) {
+		accumulator += deltaTime;
+		int steps = 0;
+		while(accumulator >= stepTime) {
+			if(steps == maxStepsPerFrame) {
+				// Drop the time we could not catch up with instead of trying again next frame
+				int dropped = (int) (accumulator / stepTime);
+				droppedSteps += dropped;
+				accumulator -= dropped * stepTime;
+				break;
+			}
+			storePreviousPositions();
+			level.tick(stepTime);
+			accumulator -= stepTime;
+			steps++;
+		}
+		this.alpha = accumulator / stepTime;
+		this.lastStepCount = steps;
+		return steps;
+	}
+	
+	/**
+	 * Renders the level with the objects added with {@link #addInterpolated(Array)} moved to their 
+	 * interpolated positions, see {@link #getAlpha()}. They are moved back to their current positions afterwards,
+	 * so the level must not add or remove interpolated objects while rendering.
+	 * @param batch
+	 */
+	public void render(SpriteBatch batch) {
+		int count = 0;
+		for(Array<? extends BasicGameObject> gameObjects : interpolatedObjects) {
+			count += gameObjects.size;
+		}
+		if(renderPositions.length < count * 2) {
+			renderPositions = Arrays.copyOf(renderPositions, Math.max(count * 2, renderPositions.length * 2));
+		}
+		
+		int index = 0;
+		for(Array<? extends BasicGameObject> gameObjects : interpolatedObjects) {
+			for(int i = 0; i < gameObjects.size; i++) {
+				BasicGameObject gameObject = gameObjects.get(i);
+				Vector2 position = gameObject.getPosition();
+				renderPositions[index++] = position.x;
+				renderPositions[index++] = position.y;
+				position.set(gameObject.getInterpolatedX(alpha), gameObject.getInterpolatedY(alpha));
+			}
+		}
+		
+		level.render(batch);
+		
+		// Backwards so objects sharing one position vector end up with the value it had before rendering
+		for(int j = interpolatedObjects.size - 1; j >= 0; j--) {
+			Array<? extends BasicGameObject> gameObjects = interpolatedObjects.get(j);
+			for(int i = gameObjects.size - 1; i >= 0; i--) {
+				float y = renderPositions[--index];
+				float x = renderPositions[--index];
+				gameObjects.get(i).getPosition().set(x, y);
+			}
+		}
+	}
+	
+	/**
+	 * Drops the time accumulated towards the next step, call after pausing or loading to not catch up
+	 */
+	public void reset() {
+		this.accumulator = 0f;
+		this.alpha = 0f;
+		storePreviousPositions();
+	}
+	
+	private void storePreviousPositions() {
+		for(Array<? extends BasicGameObject> gameObjects : interpolatedObjects) {
+			for(int i = 0; i < gameObjects.size; i++) {
+				gameObjects.get(i).storePreviousPosition();
+			}
+		}
+	}
+	
+	/**
+	 * @return how far we are between the previous and the current simulation step, 0-1
+	 */
+	public float getAlpha() {
+		return alpha;
+	}
+	
+	/**
+	 * @return the time of one simulation step in seconds
+	 */
+	public float getStepTime() {
+		return stepTime;
+	}
+	
+	/**
+	 * @param stepsPerSecond how many simulation steps to take per second
+	 */
+	public void setStepsPerSecond(int stepsPerSecond) {
+		if(stepsPerSecond <= 0) {
+			throw new IllegalArgumentException("stepsPerSecond must be positive, was " + stepsPerSecond);
+		}
+		this.stepTime = 1f / stepsPerSecond;
+	}
+	
+	/**
+	 * @return the maximum amount of steps to catch up with in one frame
+	 */
+	public int getMaxStepsPerFrame() {
+		return maxStepsPerFrame;
+	}
+	
+	/**
+	 * @param maxStepsPerFrame the maximum amount of steps to catch up with in one frame
+	 */
+	public void setMaxStepsPerFrame(int maxStepsPerFrame) {
+		if(maxStepsPerFrame <= 0) {
+			throw new IllegalArgumentException("maxStepsPerFrame must be positive, was " + maxStepsPerFrame);
+		}
+		this.maxStepsPerFrame = maxStepsPerFrame;
+	}
+	
+	/**
+	 * @return the amount of steps taken during the last {@link #update(float)}
+	 */
+	public int getLastStepCount() {
+		return lastStepCount;
+	}
+	
+	/**
+	 * @return the amount of steps dropped so far because the frames took too long
+	 */
+	public long getDroppedSteps() {
+		return droppedSteps;
+	}
+	
+	/**
+	 * @return the level driven
+	 */
+	public LevelBase getLevel() {
+		return level;
+	}
+	
+	/**
+	 * @param level the level to drive
+	 */
+	public void setLevel(LevelBase level) {
+		this.level = level;
+		reset();
+	}
+	
+	@Override
+	public String toString() {
+		return "FixedTimestepDriver\n" +
+			   "step time=" + stepTime + "\n" +
+			   "max steps per frame=" + maxStepsPerFrame + "\n" +
+			   "alpha=" + alpha + "\n" +
+			   "dropped steps=" + droppedSteps + "\n";
+	}
+
+}
@@ -0,0 +1,341 @@
+package se.fredin.gdxtensions.object;
+
+import se.fredin.gdxtensions.utils.GameCamera;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Puts game objects outside an activation region around the camera to sleep, so they skip both 
+ * {@link GameObjectBase#tick(float)} and {@link GameObjectBase#render(SpriteBatch)}. On wide levels most objects are
+ * far away from the camera and doing work nobody sees.
+ * <br>
+ * The objects are bucketed in a uniform grid of cells. Every {@link #update(GameCamera, float)} only looks at
+ * the objects in the cells covering the activation region and at the objects that were awake last frame, never at every object.
+ * This works since sleeping objects do not move by themselves and therefore never change cell. Code moving a sleeping
+ * object, like a teleport or a respawn, must call {@link #moved(BasicGameObject)} afterwards or the object is left
+ * in its old cell and only wakes when the region reaches its old position. The region is rounded out
+ * to whole cells, so objects slightly outside it may stay awake. Objects wake when entering the 
+ * region or when {@link #wake(BasicGameObject, float)} is called, for example when they are hit by a projectile.
+ * <br>
+ * Typical use, once per frame:
+ * <pre>
+ * activationGrid.update(camera, deltaTime);
+ * activationGrid.tick(deltaTime);
+ * ...
+ * activationGrid.render(batch);
+ * </pre>
+ * @author Johan Fredin
+ *
+ */
+public class ActivationGrid {
+	
+	/** Default width and height of the cells of the grid. Value={@value #DEFAULT_CELL_SIZE} */
+	public static final float DEFAULT_CELL_SIZE = 256f;
+	/** Default margin added around the camera viewport. Value={@value #DEFAULT_MARGIN} */
+	public static final float DEFAULT_MARGIN = 128f;
+	
+	private float cellSize;
+	private float marginLeft, marginRight, marginBottom, marginTop;
+	private LongMap<Array<Entry>> cells = new LongMap<>();
+	private ObjectMap<BasicGameObject, Entry> entries = new ObjectMap<>();
+	private Array<Entry> awakeEntries = new Array<>();
+	private Array<Entry> keptEntries = new Array<>();
+	private Array<BasicGameObject> awakeObjects = new Array<>();
+	private Rectangle region = new Rectangle();
+	private int frame;
+	
+	/**
+	 * Construct a new {@link ActivationGrid} with {@link #DEFAULT_CELL_SIZE} and {@link #DEFAULT_MARGIN}
+	 */
+	public ActivationGrid() {
+		this(DEFAULT_CELL_SIZE, DEFAULT_MARGIN);
+	}
+	
+	/**
+	 * Construct a new {@link ActivationGrid}
+	 * @param cellSize the width and height of the cells, around the size of the viewport works well
+	 * @param margin the margin added around the camera viewport on every side
+	 */
+	public ActivationGrid(float cellSize, float margin) {
+		this.cellSize = cellSize;
+		setMargins(margin, margin, margin, margin);
+	}
+	
+	/**
+	 * Adds a game object, it sleeps until the next {@link #update(GameCamera, float)} finds it inside the region
+	 * @param gameObject the object to add
+	 */
+	public void add(BasicGameObject gameObject) {
+		if(entries.containsKey(gameObject)) {
+			return;
+		}
+		Entry entry = new Entry(gameObject);
+		entries.put(gameObject, entry);
+		gameObject.setSleeping(true);
+		Vector2 position = gameObject.getPosition();
+		entry.cell = cellKey(position.x, position.y);
+		cellOf(entry.cell).add(entry);
+	}
+	
+	/**
+	 * Adds game objects, see {@link #add(BasicGameObject)}
+	 * @param gameObjects the objects to add
+	 */
+	public void addAll(Array<? extends BasicGameObject> gameObjects) {
+		for(BasicGameObject gameObject : gameObjects) {
+			add(gameObject);
+		}
+	}
+	
+	/**
+	 * Removes a game object, it is left awake
+	 * @param gameObject the object to remove
+	 */
+	public void remove(BasicGameObject gameObject) {
+		Entry entry = entries.remove(gameObject);
+		if(entry == null) {
+			return;
+		}
+		cells.get(entry.cell).removeValue(entry, true);
+		if(entry.isAwake) {
+			awakeEntries.removeValue(entry, true);
+			awakeObjects.removeValue(gameObject, true);
+		}
+		gameObject.setSleeping(false);
+	}
+	
+	/**
+	 * Wakes a game object and keeps it awake for at least given time even when outside the region
+	 * @param gameObject the object to wake
+	 * @param time how long to keep it awake in seconds
+	 */
+	public void wake(BasicGameObject gameObject, float time) {
+		Entry entry = entries.get(gameObject);
+		if(entry == null) {
+			return;
+		}
+		entry.wakeTime = Math.max(entry.wakeTime, time);
+		if(!entry.isAwake) {
+			setAwake(entry);
+			awakeObjects.add(gameObject);
+		}
+	}
+	
+	/**
+	 * Puts a game object in the cell of its current position. Must be called after moving a sleeping object, awake
+	 * objects are moved to their new cell by {@link #update(Rectangle, float)} anyway
+	 * @param gameObject the object that was moved
+	 */
+	public void moved(BasicGameObject gameObject) {
+		Entry entry = entries.get(gameObject);
+		if(entry != null) {
+			updateCell(entry);
+		}
+	}
+	
+	/**
+	 * Moves the activation region to the camera, wakes the objects inside it and puts the objects outside it to sleep
+	 * @param camera the camera to put the region around
+	 * @param deltaTime the time interval since the last rendering occurred
+	 */
+	public void update(GameCamera camera, float deltaTime) {
+		float width = camera.viewportWidth * camera.zoom, height = camera.viewportHeight * camera.zoom;
+		region.set(camera.position.x - width / 2 - marginLeft, camera.position.y - height / 2 - marginBottom, 
+				   width + marginLeft + marginRight, height + marginBottom + marginTop);
+		update(region, deltaTime);
+	}
+	
+	/**
+	 * Wakes the objects inside given region and puts the objects outside it to sleep
+	 * @param region the activation region
+	 * @param deltaTime the time interval since the last rendering occurred
+	 */
+	public void update(Rectangle region, float deltaTime) {
+		frame++;
+		
+		// Only awake objects can have moved to another cell, sleeping ones are moved by moved(BasicGameObject)
+		for(int i = 0; i < awakeEntries.size; i++) {
+			Entry entry = awakeEntries.get(i);
+			updateCell(entry);
+			entry.wakeTime -= deltaTime;
+		}
+		
+		int x1 = cellCoordinate(region.x), x2 = cellCoordinate(region.x + region.width);
+		int y1 = cellCoordinate(region.y), y2 = cellCoordinate(region.y + region.height);
+		for(int y = y1; y <= y2; y++) {
+			for(int x = x1; x <= x2; x++) {
+				Array<Entry> cell = cells.get(cellKey(x, y));
+				if(cell == null) {
+					continue;
+				}
+				for(int i = 0; i < cell.size; i++) {
+					Entry entry = cell.get(i);
+					entry.frame = frame;
+					if(!entry.isAwake) {
+						setAwake(entry);
+					}
+				}
+			}
+		}
+		
+		keptEntries.clear();
+		awakeObjects.clear();
+		for(int i = 0; i < awakeEntries.size; i++) {
+			Entry entry = awakeEntries.get(i);
+			if(entry.frame == frame || entry.wakeTime > 0f) {
+				keptEntries.add(entry);
+				awakeObjects.add(entry.gameObject);
+			} else {
+				entry.isAwake = false;
+				entry.wakeTime = 0f;
+				entry.gameObject.setSleeping(true);
+			}
+		}
+		Array<Entry> swap = awakeEntries;
+		awakeEntries = keptEntries;
+		keptEntries = swap;
+	}
+	
+	/**
+	 * Ticks every awake object
+	 * @param deltaTime the time interval since the last rendering occurred
+	 */
+	public void tick(float deltaTime) {
+		for(int i = 0; i < awakeObjects.size; i++) {
+			awakeObjects.get(i).tick(deltaTime);
+		}
+	}
+	
+	/**
+	 * Renders every awake object
+	 * @param batch the sprite batch responsible for drawing
+	 */
+	public void render(SpriteBatch batch) {
+		for(int i = 0; i < awakeObjects.size; i++) {
+			awakeObjects.get(i).render(batch);
+		}
+	}
+	
+	/**
+	 * @return the objects awake since the last {@link #update(GameCamera, float)}, do not modify
+	 */
+	public Array<BasicGameObject> getAwakeObjects() {
+		return awakeObjects;
+	}
+	
+	/**
+	 * @return the amount of objects in the grid
+	 */
+	public int getObjectCount() {
+		return entries.size;
+	}
+	
+	/**
+	 * @return the activation region of the last {@link #update(GameCamera, float)}
+	 */
+	public Rectangle getRegion() {
+		return region;
+	}
+	
+	/**
+	 * Set the margins added around the camera viewport
+	 * @param left the margin on the left side
+	 * @param right the margin on the right side
+	 * @param bottom the margin below
+	 * @param top the margin above
+	 */
+	public void setMargins(float left, float right, float bottom, float top) {
+		this.marginLeft = left;
+		this.marginRight = right;
+		this.marginBottom = bottom;
+		this.marginTop = top;
+	}
+	
+	public float getMarginLeft() {
+		return marginLeft;
+	}
+	
+	public float getMarginRight() {
+		return marginRight;
+	}
+	
+	public float getMarginBottom() {
+		return marginBottom;
+	}
+	
+	public float getMarginTop() {
+		return marginTop;
+	}
+	
+	/**
+	 * @return the width and height of the cells
+	 */
+	public float getCellSize() {
+		return cellSize;
+	}
+	
+	private void setAwake(Entry entry) {
+		entry.isAwake = true;
+		entry.gameObject.setSleeping(false);
+		awakeEntries.add(entry);
+	}
+	
+	private void updateCell(Entry entry) {
+		Vector2 position = entry.gameObject.getPosition();
+		long cell = cellKey(position.x, position.y);
+		if(cell != entry.cell) {
+			cells.get(entry.cell).removeValue(entry, true);
+			entry.cell = cell;
+			cellOf(cell).add(entry);
+		}
+	}
+	
+	private Array<Entry> cellOf(long key) {
+		Array<Entry> cell = cells.get(key);
+		if(cell == null) {
+			cell = new Array<>(false, 8);
+			cells.put(key, cell);
+		}
+		return cell;
+	}
+	
+	private int cellCoordinate(float value) {
+		return (int) Math.floor(value / cellSize);
+	}
+	
+	private long cellKey(float x, float y) {
+		return cellKey(cellCoordinate(x), cellCoordinate(y));
+	}
+	
+	private static long cellKey(int x, int y) {
+		return (long) x << 32 | (y & 0xFFFFFFFFL);
+	}
+	
+	@Override
+	public String toString() {
+		return "ActivationGrid\n" +
+			   "objects=" + entries.size + "\n" +
+			   "awake=" + awakeObjects.size + "\n" +
+			   "region=" + region + "\n";
+	}
+	
+	private static class Entry {
+		
+		final BasicGameObject gameObject;
+		long cell;
+		int frame;
+		float wakeTime;
+		boolean isAwake;
+		
+		Entry(BasicGameObject gameObject) {
+			this.gameObject = gameObject;
+		}
+		
+	}
+
+}
@@ -2,6 +2,10 @@ package se.fredin.gdxtensions.object;
 
 import se.fredin.gdxtensions.assetmanagement.Assets;
 import se.fredin.gdxtensions.collision.CollisionHandler;
+import se.fredin.gdxtensions.collision.ContactManifold;
+import se.fredin.gdxtensions.collision.ContactTracker;
+import se.fredin.gdxtensions.collision.SortAndSweep;
+import se.fredin.gdxtensions.level.FixedTimestepDriver;
 import se.fredin.gdxtensions.utils.ParticleHelper;
 import se.fredin.gdxtensions.utils.logging.LogUtils;
 
@@ -19,13 +23,19 @@ import com.badlogic.gdx.utils.Array;
  * a {@link Rectangle} for bounds, a {@link CollisionHandler}, a {@link TextureRegion}
  * for drawing, a speed variable as well as options for cropping / enlarging its bounding box,
  * a {@link ParticleHelper} if user wishes to use particles
- * and at last a boolean for detecting if collision has occurred
+ * and at last a boolean for detecting if collision has occurred.
+ * <br>
+ * The position, velocity and bounds can be handed over to an {@link EntityStore} with {@link EntityStore#add(BasicGameObject)}.
+ * While bound, the accessors read and write the store and the fields are only refreshed by the getters, so subclasses
+ * should go through {@link #getPosition()}, {@link #getVelocity()} and {@link #getBounds()} instead of the fields.
  * @author Johan Fredin
  *
  */
 public abstract class BasicGameObject implements GameObjectBase {
 
 	protected Vector2 position;
+	/** The position at the start of the last fixed simulation step, used to interpolate rendering */
+	protected Vector2 previousPosition = new Vector2();
 	protected Vector2 velocity;
 	protected Rectangle bounds;
 	protected TextureRegion gameObjectTexture;
@@ -33,6 +43,12 @@ public abstract class BasicGameObject implements GameObjectBase {
 	protected boolean isCollidedWith;
 	protected float top, left, bottom, right;
 	protected float speed;
+	/** Whether or not an {@link ActivationGrid} has put this object to sleep */
+	private boolean isSleeping;
+	/** The store owning the position, velocity and bounds of this object while it is bound, see {@link EntityStore#add(BasicGameObject)} */
+	private EntityStore entityStore;
+	/** The id of the entity this object is bound to in an {@link EntityStore} */
+	private int entityId = EntityStore.NO_ENTITY;
 	
 	/** Used to emit particles for the children of this class that may need to */
 	protected ParticleHelper particleHelper;
@@ -98,6 +114,7 @@ public abstract class BasicGameObject implements GameObjectBase {
 	 */
 	public BasicGameObject(Vector2 position, CollisionHandler collisionHandler, float width, float height, float right, float bottom, float left, float top) {
 		this.position = position;
+		this.previousPosition.set(position);
 		this.right = right;
 		this.bottom = bottom;
 		this.left = left;
@@ -130,12 +147,109 @@ public abstract class BasicGameObject implements GameObjectBase {
 	}
 	
 	/**
-	 * @return the current position we are at
+	 * @return whether or not this object is outside the activation region of an {@link ActivationGrid} 
+	 * and should skip ticking and rendering
+	 */
+	public boolean isSleeping() {
+		return isSleeping;
+	}
+	
+	void setSleeping(boolean isSleeping) {
+		if(this.isSleeping != isSleeping) {
+			this.isSleeping = isSleeping;
+			if(isSleeping) {
+				onSleep();
+			} else {
+				onWake();
+			}
+		}
+	}
+	
+	/**
+	 * Called when an {@link ActivationGrid} puts this object to sleep. Does nothing by default.
+	 */
+	protected void onSleep() {}
+	
+	/**
+	 * Called when an {@link ActivationGrid} wakes this object up. Does nothing by default.
+	 */
+	protected void onWake() {}
+	
+	/**
+	 * @return the id of the entity this object is bound to in an {@link EntityStore}, 
+	 * {@link EntityStore#NO_ENTITY} if it is not bound
+	 */
+	public int getEntityId() {
+		return entityId;
+	}
+	
+	/**
+	 * @return whether or not this object is bound to an {@link EntityStore}, which then owns its position, velocity and bounds
+	 */
+	public boolean isBound() {
+		return entityStore != null;
+	}
+	
+	void bind(EntityStore entityStore, int entityId) {
+		this.entityStore = entityStore;
+		this.entityId = entityId;
+	}
+	
+	/**
+	 * Takes back the state of the entity from the store, called by the store before the entity is removed
+	 */
+	void unbind() {
+		getPosition();
+		getVelocity();
+		getBounds();
+		this.entityStore = null;
+		this.entityId = EntityStore.NO_ENTITY;
+	}
+	
+	/**
+	 * @return the current position we are at. While bound to an {@link EntityStore} the returned vector
+	 * is refreshed from the store, change it with {@link #setPosition(float, float)}
 	 */
 	public Vector2 getPosition() {
+		if(entityStore != null) {
+			position.set(entityStore.getX(entityId), entityStore.getY(entityId));
+		}
 		return position;
 	}
 
+	/**
+	 * @return the position at the start of the last fixed simulation step
+	 */
+	public Vector2 getPreviousPosition() {
+		return previousPosition;
+	}
+	
+	/**
+	 * Remembers the current position as the previous one, called by a {@link FixedTimestepDriver} 
+	 * before every simulation step. Call it right after teleporting to not interpolate across the jump.
+	 */
+	public void storePreviousPosition() {
+		this.previousPosition.set(getPosition());
+	}
+	
+	/**
+	 * @param alpha how far we are between the previous and the current simulation step, 0-1,
+	 * see {@link FixedTimestepDriver#getAlpha()}
+	 * @return the x position to render at
+	 */
+	public float getInterpolatedX(float alpha) {
+		return previousPosition.x + (getPosition().x - previousPosition.x) * alpha;
+	}
+	
+	/**
+	 * @param alpha how far we are between the previous and the current simulation step, 0-1,
+	 * see {@link FixedTimestepDriver#getAlpha()}
+	 * @return the y position to render at
+	 */
+	public float getInterpolatedY(float alpha) {
+		return previousPosition.y + (getPosition().y - previousPosition.y) * alpha;
+	}
+
 	/**
 	 * set the position
 	 * @param position
@@ -145,6 +259,9 @@ public abstract class BasicGameObject implements GameObjectBase {
 		if(bounds != null) {
 			this.bounds.setPosition(position.x + left, position.y + top);
 		} 
+		if(entityStore != null) {
+			entityStore.setPosition(entityId, position.x, position.y);
+		}
 	}
 
 	/**
@@ -157,6 +274,9 @@ public abstract class BasicGameObject implements GameObjectBase {
 		if(bounds != null) {
 			this.bounds.setPosition(position.x + left, position.y + top);
 		}
+		if(entityStore != null) {
+			entityStore.setPosition(entityId, x, y);
+		}
 	}
 	
 	/**
@@ -164,7 +284,10 @@ public abstract class BasicGameObject implements GameObjectBase {
 	 * @param x
 	 */
 	public void setX(float x) {
-		this.position.x = x + left;
+		getPosition().x = x + left;
+		if(entityStore != null) {
+			entityStore.setPosition(entityId, position.x, position.y);
+		}
 	}
 	
 	/**
@@ -172,7 +295,10 @@ public abstract class BasicGameObject implements GameObjectBase {
 	 * @param y
 	 */
 	public void setY(float y) {
-		this.position.y = y + top;
+		getPosition().y = y + top;
+		if(entityStore != null) {
+			entityStore.setPosition(entityId, position.x, position.y);
+		}
 	}
 	
 	/**
@@ -195,6 +321,9 @@ public abstract class BasicGameObject implements GameObjectBase {
 	 */
 	public void setBounds(Rectangle bounds) {
 		this.bounds = bounds;
+		if(entityStore != null) {
+			entityStore.setBounds(entityId, bounds);
+		}
 	}
 	
 	/**
@@ -210,6 +339,9 @@ public abstract class BasicGameObject implements GameObjectBase {
 		} else {
 			this.bounds = new Rectangle(x, y, width, height);
 		}
+		if(entityStore != null) {
+			entityStore.setBounds(entityId, bounds);
+		}
 	}
 	
 	/**
@@ -228,17 +360,24 @@ public abstract class BasicGameObject implements GameObjectBase {
 		this.bottom = bottom;
 		this.left = left;
 		this.top = top;
+		getPosition();
 		if(this.bounds != null) {
 			this.bounds.set(position.x + left, position.y + top, width - (left + right), height - (bottom + top));
 		} else {
 			this.bounds = new Rectangle(position.x + left, position.y + top, width - (left + right), height - (bottom + top));
 		}
+		if(entityStore != null) {
+			entityStore.setBounds(entityId, bounds);
+		}
 	}
 	
 	/**
-	 * @return the bounding box
+	 * @return the bounding box. While bound to an {@link EntityStore} the returned rectangle is refreshed from the store
 	 */
 	public Rectangle getBounds() {
+		if(entityStore != null) {
+			entityStore.getBounds(entityId, bounds);
+		}
 		return this.bounds;
 	}
 	
@@ -252,6 +391,9 @@ public abstract class BasicGameObject implements GameObjectBase {
 		} else {
 			this.velocity = new Vector2(velocity);
 		}
+		if(entityStore != null) {
+			entityStore.setVelocity(entityId, velocity.x, velocity.y);
+		}
 	}
 	
 	/**
@@ -265,12 +407,19 @@ public abstract class BasicGameObject implements GameObjectBase {
 		} else {
 			this.velocity = new Vector2(xSpeed, ySpeed);
 		}
+		if(entityStore != null) {
+			entityStore.setVelocity(entityId, xSpeed, ySpeed);
+		}
 	}
 	
 	/**
-	 * @return the velocity {@link Vector2}
+	 * @return the velocity {@link Vector2}. While bound to an {@link EntityStore} the returned vector
+	 * is refreshed from the store, change it with {@link #setVelocity(float, float)}
 	 */
 	public Vector2 getVelocity() {
+		if(entityStore != null) {
+			velocity.set(entityStore.getVelocityX(entityId), entityStore.getVelocityY(entityId));
+		}
 		return velocity;
 	}
 	
@@ -279,7 +428,10 @@ public abstract class BasicGameObject implements GameObjectBase {
 	 * @param xSpeed
 	 */
 	public void setXSpeed(float xSpeed) {
-		this.velocity.x = xSpeed;
+		getVelocity().x = xSpeed;
+		if(entityStore != null) {
+			entityStore.setVelocity(entityId, velocity.x, velocity.y);
+		}
 	}
 	
 	/**
@@ -287,7 +439,10 @@ public abstract class BasicGameObject implements GameObjectBase {
 	 * @param ySpeed
 	 */
 	public void setYSpeed(float ySpeed) {
-		this.velocity.y = ySpeed;
+		getVelocity().y = ySpeed;
+		if(entityStore != null) {
+			entityStore.setVelocity(entityId, velocity.x, velocity.y);
+		}
 	}
 	
 	/**
@@ -398,6 +553,39 @@ public abstract class BasicGameObject implements GameObjectBase {
 		}
 	}
 	
+	/**
+	 * Called by a broadphase like {@link SortAndSweep} when the {@link #bounds} of this and another game object 
+	 * overlap. Passes the other game object on to {@link #handleCollision(BasicGameObject)}.
+	 * @param gameObjectCollidedWith the {@link BasicGameObject} we collide with
+	 */
+	public void onCollision(BasicGameObject gameObjectCollidedWith) {
+		handleCollision(gameObjectCollidedWith);
+	}
+	
+	/**
+	 * Called by a {@link ContactTracker} the first frame the {@link #bounds} of this and another game object touch.
+	 * Does nothing by default.
+	 * @param gameObjectCollidedWith the {@link BasicGameObject} we touch
+	 * @param manifold the contact seen from this game object, only valid during the call
+	 */
+	public void onContactBegin(BasicGameObject gameObjectCollidedWith, ContactManifold manifold) {}
+	
+	/**
+	 * Called by a {@link ContactTracker} every following frame the {@link #bounds} of this and another game object still touch.
+	 * Does nothing by default.
+	 * @param gameObjectCollidedWith the {@link BasicGameObject} we touch
+	 * @param manifold the contact seen from this game object, only valid during the call
+	 */
+	public void onContactStay(BasicGameObject gameObjectCollidedWith, ContactManifold manifold) {}
+	
+	/**
+	 * Called by a {@link ContactTracker} the first frame the {@link #bounds} of this and another game object no longer touch.
+	 * Does nothing by default.
+	 * @param gameObjectCollidedWith the {@link BasicGameObject} we touched
+	 * @param manifold the last contact seen from this game object, only valid during the call
+	 */
+	public void onContactEnd(BasicGameObject gameObjectCollidedWith, ContactManifold manifold) {}
+	
 	/**
 	 * Used for handling collision with other objects extending this class. Collision happens 
 	 * when the both the game objects {@link #bounds} overlaps each other.
@@ -0,0 +1,392 @@
+package se.fredin.gdxtensions.object;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Keeps the hot state of many entities, position, velocity and bounds, in contiguous primitive arrays
+ * instead of in one {@link com.badlogic.gdx.math.Vector2} and {@link Rectangle} per object. 
+ * {@link #integrate(float)} then moves every entity in one tight loop, which scales to the thousands of
+ * entities of a bullet hell level where looping over the objects would chase pointers.
+ * <br>
+ * Entities are referred to by an id that stays the same for as long as the entity lives. The arrays
+ * themselves are kept dense, removing an entity moves the last one into its place, so the raw arrays
+ * returned by for example {@link #getXs()} are valid from 0 to {@link #size()} - 1 in no particular order.
+ * Ids of removed entities are reused.
+ * <br>
+ * A {@link BasicGameObject} can be bound to the store with {@link #add(BasicGameObject)}, making it a view on
+ * its entity. The store then owns its position, velocity and bounds, the accessors of the object read and write
+ * the arrays, so nothing has to be copied between the objects and the store around {@link #integrate(float)}.
+ * @author Johan Fredin
+ *
+ */
+public class EntityStore {
+	
+	/** Returned for objects not bound to a store */
+	public static final int NO_ENTITY = -1;
+	
+	private float[] x, y;
+	private float[] velocityX, velocityY;
+	private float[] boundsOffsetX, boundsOffsetY;
+	private float[] boundsWidth, boundsHeight;
+	private int[] ids;
+	private BasicGameObject[] objects;
+	private int size;
+	
+	/** The index in the dense arrays of each id, {@link #NO_ENTITY} for free ids */
+	private int[] indices;
+	private int[] freeIds;
+	private int freeIdCount;
+	private int idCount;
+	
+	/**
+	 * Construct a new {@link EntityStore} with room for 64 entities before growing
+	 */
+	public EntityStore() {
+		this(64);
+	}
+	
+	/**
+	 * Construct a new {@link EntityStore}
+	 * @param capacity the amount of entities to make room for before growing
+	 */
+	public EntityStore(int capacity) {
+		capacity = Math.max(1, capacity);
+		this.x = new float[capacity];
+		this.y = new float[capacity];
+		this.velocityX = new float[capacity];
+		this.velocityY = new float[capacity];
+		this.boundsOffsetX = new float[capacity];
+		this.boundsOffsetY = new float[capacity];
+		this.boundsWidth = new float[capacity];
+		this.boundsHeight = new float[capacity];
+		this.ids = new int[capacity];
+		this.objects = new BasicGameObject[capacity];
+		this.indices = new int[capacity];
+		this.freeIds = new int[capacity];
+	}
+	
+	/**
+	 * Creates an entity not bound to any game object
+	 * @param x the x position
+	 * @param y the y position
+	 * @param width the width of the bounds
+	 * @param height the height of the bounds
+	 * @return the id of the new entity
+	 */
+	public int create(float x, float y, float width, float height) {
+		int id = obtainId();
+		int index = size++;
+		ensureCapacity(size);
+		indices[id] = index;
+		ids[index] = id;
+		this.x[index] = x;
+		this.y[index] = y;
+		this.velocityX[index] = this.velocityY[index] = 0f;
+		this.boundsOffsetX[index] = this.boundsOffsetY[index] = 0f;
+		this.boundsWidth[index] = width;
+		this.boundsHeight[index] = height;
+		this.objects[index] = null;
+		return id;
+	}
+	
+	/**
+	 * Binds a game object to a new entity, moving its position, velocity and bounds into the store.
+	 * From then on the store owns them, see {@link BasicGameObject#getPosition()}
+	 * @param gameObject the object to bind
+	 * @return the id of the new entity
+	 * @throws IllegalArgumentException if the object is already bound to a store
+	 */
+	public int add(BasicGameObject gameObject) {
+		if(gameObject.getEntityId() != NO_ENTITY) {
+			throw new IllegalArgumentException("Game object is already bound to entity " + gameObject.getEntityId());
+		}
+		Vector2 position = gameObject.getPosition();
+		Vector2 velocity = gameObject.getVelocity();
+		Rectangle bounds = gameObject.getBounds();
+		int id = create(position.x, position.y, bounds.width, bounds.height);
+		int index = indices[id];
+		boundsOffsetX[index] = bounds.x - position.x;
+		boundsOffsetY[index] = bounds.y - position.y;
+		velocityX[index] = velocity.x;
+		velocityY[index] = velocity.y;
+		objects[index] = gameObject;
+		gameObject.bind(this, id);
+		return id;
+	}
+	
+	/**
+	 * Removes an entity, unbinding its game object if it has one. The game object takes back the last position, velocity
+	 * and bounds of the entity. The id may be reused by the next entity created.
+	 * @param id the id of the entity
+	 * @throws IllegalArgumentException if there is no entity with given id, e.g it has already been removed
+	 */
+	public void remove(int id) {
+		if(!contains(id)) {
+			throw new IllegalArgumentException("No entity with id " + id);
+		}
+		int index = indices[id];
+		if(objects[index] != null) {
+			objects[index].unbind();
+		}
+		int last = --size;
+		if(index != last) {
+			// Keep the arrays dense by moving the last entity into the hole
+			x[index] = x[last];
+			y[index] = y[last];
+			velocityX[index] = velocityX[last];
+			velocityY[index] = velocityY[last];
+			boundsOffsetX[index] = boundsOffsetX[last];
+			boundsOffsetY[index] = boundsOffsetY[last];
+			boundsWidth[index] = boundsWidth[last];
+			boundsHeight[index] = boundsHeight[last];
+			ids[index] = ids[last];
+			objects[index] = objects[last];
+			indices[ids[index]] = index;
+		}
+		objects[last] = null;
+		indices[id] = NO_ENTITY;
+		freeIds[freeIdCount++] = id;
+	}
+	
+	/**
+	 * Removes the entity bound to given game object
+	 * @param gameObject the bound object
+	 */
+	public void remove(BasicGameObject gameObject) {
+		if(gameObject.getEntityId() != NO_ENTITY) {
+			remove(gameObject.getEntityId());
+		}
+	}
+	
+	/**
+	 * Removes all entities and unbinds all game objects
+	 */
+	public void clear() {
+		for(int i = 0; i < size; i++) {
+			if(objects[i] != null) {
+				objects[i].unbind();
+				objects[i] = null;
+			}
+		}
+		Arrays.fill(indices, 0, idCount, NO_ENTITY);
+		size = idCount = freeIdCount = 0;
+	}
+	
+	/**
+	 * Moves every entity by its velocity in one pass over the arrays
+	 * @param deltaTime the time to move for
+	 */
+	public void integrate(float deltaTime) {
+		float[] x = this.x, y = this.y, velocityX = this.velocityX, velocityY = this.velocityY;
+		for(int i = 0, n = size; i < n; i++) {
+			x[i] += velocityX[i] * deltaTime;
+			y[i] += velocityY[i] * deltaTime;
+		}
+	}
+	
+	/**
+	 * Adds the bound game objects of all entities overlapping given area to given {@link Array}
+	 * @param area the area to check
+	 * @param result receives the overlapping objects
+	 * @return the amount of objects added
+	 */
+	public int getObjectsOverlapping(Rectangle area, Array<BasicGameObject> result) {
+		int added = 0;
+		float areaX2 = area.x + area.width, areaY2 = area.y + area.height;
+		for(int i = 0; i < size; i++) {
+			float left = x[i] + boundsOffsetX[i], bottom = y[i] + boundsOffsetY[i];
+			if(objects[i] != null && left < areaX2 && left + boundsWidth[i] > area.x && bottom < areaY2 && bottom + boundsHeight[i] > area.y) {
+				result.add(objects[i]);
+				added++;
+			}
+		}
+		return added;
+	}
+	
+	/**
+	 * @param id the id of the entity
+	 * @return whether or not an entity with given id exists
+	 */
+	public boolean contains(int id) {
+		return id >= 0 && id < idCount && indices[id] != NO_ENTITY;
+	}
+	
+	/**
+	 * @param id the id of an entity that has been created and not removed
+	 * @return the index of the entity in the raw arrays, changes when other entities are removed.
+	 * {@link #NO_ENTITY} for a removed id that has not been reused yet
+	 */
+	public int indexOf(int id) {
+		return indices[id];
+	}
+	
+	/**
+	 * @param id the id of the entity, must exist, see {@link #contains(int)}
+	 * @return the x position
+	 */
+	public float getX(int id) {
+		return x[indices[id]];
+	}
+	
+	/**
+	 * @param id the id of the entity, must exist, see {@link #contains(int)}
+	 * @return the y position
+	 */
+	public float getY(int id) {
+		return y[indices[id]];
+	}
+	
+	/**
+	 * Set the position of an entity
+	 * @param id the id of the entity, must exist, see {@link #contains(int)}
+	 * @param x the x position
+	 * @param y the y position
+	 */
+	public void setPosition(int id, float x, float y) {
+		int index = indices[id];
+		this.x[index] = x;
+		this.y[index] = y;
+	}
+	
+	/**
+	 * @param id the id of the entity, must exist, see {@link #contains(int)}
+	 * @return the x velocity
+	 */
+	public float getVelocityX(int id) {
+		return velocityX[indices[id]];
+	}
+	
+	/**
+	 * @param id the id of the entity, must exist, see {@link #contains(int)}
+	 * @return the y velocity
+	 */
+	public float getVelocityY(int id) {
+		return velocityY[indices[id]];
+	}
+	
+	/**
+	 * Set the velocity of an entity
+	 * @param id the id of the entity, must exist, see {@link #contains(int)}
+	 * @param velocityX the x velocity
+	 * @param velocityY the y velocity
+	 */
+	public void setVelocity(int id, float velocityX, float velocityY) {
+		int index = indices[id];
+		this.velocityX[index] = velocityX;
+		this.velocityY[index] = velocityY;
+	}
+	
+	/**
+	 * @param id the id of the entity, must exist, see {@link #contains(int)}
+	 * @param bounds receives the bounds of the entity
+	 * @return given bounds for chaining
+	 */
+	public Rectangle getBounds(int id, Rectangle bounds) {
+		int index = indices[id];
+		return bounds.set(x[index] + boundsOffsetX[index], y[index] + boundsOffsetY[index], boundsWidth[index], boundsHeight[index]);
+	}
+	
+	/**
+	 * Set the bounds of an entity, kept relative to its position when it moves
+	 * @param id the id of the entity, must exist, see {@link #contains(int)}
+	 * @param bounds the bounds at the current position of the entity
+	 */
+	public void setBounds(int id, Rectangle bounds) {
+		int index = indices[id];
+		boundsOffsetX[index] = bounds.x - x[index];
+		boundsOffsetY[index] = bounds.y - y[index];
+		boundsWidth[index] = bounds.width;
+		boundsHeight[index] = bounds.height;
+	}
+	
+	/**
+	 * @param id the id of the entity, must exist, see {@link #contains(int)}
+	 * @return the bound game object or null if the entity has none
+	 */
+	public BasicGameObject getObject(int id) {
+		return objects[indices[id]];
+	}
+	
+	/**
+	 * @return the amount of entities
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * @return the raw x positions, valid from 0 to {@link #size()} - 1
+	 */
+	public float[] getXs() {
+		return x;
+	}
+	
+	/**
+	 * @return the raw y positions, valid from 0 to {@link #size()} - 1
+	 */
+	public float[] getYs() {
+		return y;
+	}
+	
+	/**
+	 * @return the raw x velocities, valid from 0 to {@link #size()} - 1
+	 */
+	public float[] getVelocityXs() {
+		return velocityX;
+	}
+	
+	/**
+	 * @return the raw y velocities, valid from 0 to {@link #size()} - 1
+	 */
+	public float[] getVelocityYs() {
+		return velocityY;
+	}
+	
+	/**
+	 * @return the raw entity ids, valid from 0 to {@link #size()} - 1
+	 */
+	public int[] getIds() {
+		return ids;
+	}
+	
+	private int obtainId() {
+		if(freeIdCount > 0) {
+			return freeIds[--freeIdCount];
+		}
+		int id = idCount++;
+		if(id == indices.length) {
+			indices = Arrays.copyOf(indices, id * 2);
+			freeIds = Arrays.copyOf(freeIds, id * 2);
+		}
+		return id;
+	}
+	
+	private void ensureCapacity(int capacity) {
+		if(capacity <= x.length) {
+			return;
+		}
+		int newCapacity = Math.max(capacity, x.length * 2);
+		x = Arrays.copyOf(x, newCapacity);
+		y = Arrays.copyOf(y, newCapacity);
+		velocityX = Arrays.copyOf(velocityX, newCapacity);
+		velocityY = Arrays.copyOf(velocityY, newCapacity);
+		boundsOffsetX = Arrays.copyOf(boundsOffsetX, newCapacity);
+		boundsOffsetY = Arrays.copyOf(boundsOffsetY, newCapacity);
+		boundsWidth = Arrays.copyOf(boundsWidth, newCapacity);
+		boundsHeight = Arrays.copyOf(boundsHeight, newCapacity);
+		ids = Arrays.copyOf(ids, newCapacity);
+		objects = Arrays.copyOf(objects, newCapacity);
+	}
+	
+	@Override
+	public String toString() {
+		return "EntityStore\n" +
+			   "size=" + size + "\n" +
+			   "capacity=" + x.length + "\n";
+	}
+
+}
@@ -0,0 +1,148 @@
+package se.fredin.gdxtensions.object;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * A frozen copy of the positions, velocities and bounds of a set of game objects, taken at the start of a step
+ * by a {@link ParallelTicker}. Objects thinking in parallel read each other through the snapshot instead of
+ * through the live objects, which may be halfway through being updated. The snapshot is never written to
+ * while the objects think, so reading it from any thread is safe.
+ * @author Johan Fredin
+ *
+ */
+public class ObjectSnapshot {
+	
+	private BasicGameObject[] objects = new BasicGameObject[16];
+	private float[] x = new float[16], y = new float[16];
+	private float[] velocityX = new float[16], velocityY = new float[16];
+	private float[] boundsX = new float[16], boundsY = new float[16];
+	private float[] boundsWidth = new float[16], boundsHeight = new float[16];
+	private int size;
+	
+	/**
+	 * Copies the state of given objects, replacing what the snapshot held
+	 * @param gameObjects the objects to copy
+	 */
+	public void capture(Array<? extends BasicGameObject> gameObjects) {
+		int count = gameObjects.size;
+		if(count > x.length) {
+			int capacity = Math.max(count, x.length * 2);
+			objects = new BasicGameObject[capacity];
+			x = new float[capacity];
+			y = new float[capacity];
+			velocityX = new float[capacity];
+			velocityY = new float[capacity];
+			boundsX = new float[capacity];
+			boundsY = new float[capacity];
+			boundsWidth = new float[capacity];
+			boundsHeight = new float[capacity];
+		} else if(count < size) {
+			Arrays.fill(objects, count, size, null);
+		}
+		for(int i = 0; i < count; i++) {
+			BasicGameObject gameObject = gameObjects.get(i);
+			Rectangle bounds = gameObject.getBounds();
+			Vector2 position = gameObject.getPosition();
+			Vector2 velocity = gameObject.getVelocity();
+			objects[i] = gameObject;
+			x[i] = position.x;
+			y[i] = position.y;
+			velocityX[i] = velocity.x;
+			velocityY[i] = velocity.y;
+			boundsX[i] = bounds.x;
+			boundsY[i] = bounds.y;
+			boundsWidth[i] = bounds.width;
+			boundsHeight[i] = bounds.height;
+		}
+		this.size = count;
+	}
+	
+	/**
+	 * Finds the closest object to a point, measured from the object position
+	 * @param x the x position of the point
+	 * @param y the y position of the point
+	 * @param maxDistance how far away to look
+	 * @param exclude an object to skip, typically the one asking, may be null
+	 * @return the index of the closest object or -1 if none is within the distance
+	 */
+	public int findClosest(float x, float y, float maxDistance, BasicGameObject exclude) {
+		int closest = -1;
+		float closestDistance2 = maxDistance * maxDistance;
+		for(int i = 0; i < size; i++) {
+			if(objects[i] == exclude) {
+				continue;
+			}
+			float dx = this.x[i] - x, dy = this.y[i] - y;
+			float distance2 = dx * dx + dy * dy;
+			if(distance2 <= closestDistance2) {
+				closestDistance2 = distance2;
+				closest = i;
+			}
+		}
+		return closest;
+	}
+	
+	/**
+	 * Adds the indices of the objects whose bounds overlap given area
+	 * @param area the area to check
+	 * @param result receives the indices
+	 * @return the amount of indices added
+	 */
+	public int getOverlapping(Rectangle area, IntArray result) {
+		int added = 0;
+		float areaX2 = area.x + area.width, areaY2 = area.y + area.height;
+		for(int i = 0; i < size; i++) {
+			if(boundsX[i] < areaX2 && boundsX[i] + boundsWidth[i] > area.x && boundsY[i] < areaY2 && boundsY[i] + boundsHeight[i] > area.y) {
+				result.add(i);
+				added++;
+			}
+		}
+		return added;
+	}
+	
+	/**
+	 * @return the amount of objects in the snapshot
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * @param index 0 to {@link #size()} - 1
+	 * @return the object the state at given index was copied from. Only use it for identity, its live state may be changing
+	 */
+	public BasicGameObject getObject(int index) {
+		return objects[index];
+	}
+	
+	public float getX(int index) {
+		return x[index];
+	}
+	
+	public float getY(int index) {
+		return y[index];
+	}
+	
+	public float getVelocityX(int index) {
+		return velocityX[index];
+	}
+	
+	public float getVelocityY(int index) {
+		return velocityY[index];
+	}
+	
+	/**
+	 * @param index 0 to {@link #size()} - 1
+	 * @param bounds receives the bounds of the object at given index
+	 * @return given bounds for chaining
+	 */
+	public Rectangle getBounds(int index, Rectangle bounds) {
+		return bounds.set(boundsX[index], boundsY[index], boundsWidth[index], boundsHeight[index]);
+	}
+
+}
@@ -0,0 +1,106 @@
+package se.fredin.gdxtensions.object;
+
+import se.fredin.gdxtensions.collision.CollisionHandler;
+import se.fredin.gdxtensions.utils.concurrent.WorkerPool;
+import se.fredin.gdxtensions.utils.concurrent.WorkerPool.RangeTask;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Resolves the moves of many {@link RichGameObject}s in parallel. Since {@link RichGameObject#tryMove(com.badlogic.gdx.math.Vector2)}
+ * only reads the static blocks of the {@link CollisionHandler} and only writes to the moving object itself, 
+ * objects that do not interact with each other can be resolved at the same time on several threads.
+ * <br>
+ * Objects request their moves during their tick with {@link RichGameObject#requestMove(float, float)}, then
+ * {@link #resolve(Array)} splits them across the threads of a {@link WorkerPool}. Each worker only writes to the 
+ * objects in its own range. Once every move is resolved, {@link RichGameObject#onMoveResolved()} is called
+ * on the calling thread in the order of the {@link Array}, so the outcome is the same no matter how the work was split.
+ * @author Johan Fredin
+ *
+ */
+public class ParallelMoveResolver implements Disposable {
+	
+	private WorkerPool workerPool;
+	private Array<? extends RichGameObject> movers;
+	private Array<CollisionHandler> collisionHandlers;
+	private RangeTask resolveTask;
+	
+	/**
+	 * Construct a new {@link ParallelMoveResolver} using one thread per available processor
+	 */
+	public ParallelMoveResolver() {
+		this(new WorkerPool());
+	}
+	
+	/**
+	 * Construct a new {@link ParallelMoveResolver}
+	 * @param threadCount the amount of threads to use
+	 */
+	public ParallelMoveResolver(int threadCount) {
+		this(new WorkerPool(threadCount));
+	}
+	
+	/**
+	 * Construct a new {@link ParallelMoveResolver}
+	 * @param workerPool the {@link WorkerPool} to run the work on
+	 */
+	public ParallelMoveResolver(WorkerPool workerPool) {
+		this.workerPool = workerPool;
+		this.collisionHandlers = new Array<>();
+		this.resolveTask = new RangeTask() {
+			@Override
+			public void run(int from, int to) {
+				for(int i = from; i < to; i++) {
+					movers.get(i).resolveRequestedMove();
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Resolves the requested moves of given objects in parallel and then calls 
+	 * {@link RichGameObject#onMoveResolved()} on them in order.
+	 * The blocks of the {@link CollisionHandler}s used by the objects must not change meanwhile.
+	 * @param movers the objects to resolve
+	 */
+	public void resolve(Array<? extends RichGameObject> movers) {
+		this.movers = movers;
+		
+		// The query cache of the collision handlers is not thread safe, bypass it while resolving
+		collisionHandlers.clear();
+		for(RichGameObject mover : movers) {
+			CollisionHandler collisionHandler = mover.getCollisionHandler();
+			if(collisionHandler != null && !collisionHandler.isParallelQueries() && !collisionHandlers.contains(collisionHandler, true)) {
+				collisionHandler.setParallelQueries(true);
+				collisionHandlers.add(collisionHandler);
+			}
+		}
+		
+		try {
+			workerPool.forEach(movers.size, resolveTask);
+		} finally {
+			for(CollisionHandler collisionHandler : collisionHandlers) {
+				collisionHandler.setParallelQueries(false);
+			}
+			this.movers = null;
+		}
+		
+		for(RichGameObject mover : movers) {
+			mover.finishRequestedMove();
+		}
+	}
+	
+	/**
+	 * @return the {@link WorkerPool} used
+	 */
+	public WorkerPool getWorkerPool() {
+		return workerPool;
+	}
+	
+	@Override
+	public void dispose() {
+		workerPool.dispose();
+	}
+
+}
@@ -0,0 +1,107 @@
+package se.fredin.gdxtensions.object;
+
+import se.fredin.gdxtensions.utils.concurrent.WorkerPool;
+import se.fredin.gdxtensions.utils.concurrent.WorkerPool.RangeTask;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Updates many {@link ThinkingObject}s in two phases instead of ticking them one after another on the render thread.
+ * <ol>
+ * <li>An {@link ObjectSnapshot} of every object is taken</li>
+ * <li>Think: every object decides what to do by reading the snapshot, in parallel on a work stealing {@link WorkerPool}</li>
+ * <li>Apply: every object commits its decision, moving and colliding, serially in the order of the {@link Array}</li>
+ * </ol>
+ * Since thinking only reads the snapshot and only writes to the thinking object itself, the outcome is the same
+ * no matter the amount of threads. The expensive part of AI heavy levels, deciding, is what runs in parallel.
+ * @author Johan Fredin
+ *
+ * @param <T> the type of objects ticked
+ */
+public class ParallelTicker<T extends BasicGameObject & ThinkingObject> implements Disposable {
+	
+	private WorkerPool workerPool;
+	private ObjectSnapshot snapshot;
+	private Array<T> gameObjects;
+	private float deltaTime;
+	private RangeTask thinkTask;
+	
+	/**
+	 * Construct a new {@link ParallelTicker} using one thread per available processor
+	 */
+	public ParallelTicker() {
+		this(new WorkerPool());
+	}
+	
+	/**
+	 * Construct a new {@link ParallelTicker}
+	 * @param threadCount the amount of threads to think on
+	 */
+	public ParallelTicker(int threadCount) {
+		this(new WorkerPool(threadCount));
+	}
+	
+	/**
+	 * Construct a new {@link ParallelTicker}
+	 * @param workerPool the {@link WorkerPool} to think on
+	 */
+	public ParallelTicker(WorkerPool workerPool) {
+		this.workerPool = workerPool;
+		this.snapshot = new ObjectSnapshot();
+		this.thinkTask = new RangeTask() {
+			@Override
+			public void run(int from, int to) {
+				for(int i = from; i < to; i++) {
+					gameObjects.get(i).think(deltaTime, snapshot);
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Takes a snapshot of given objects, lets them think in parallel and then applies their decisions in order
+	 * @param gameObjects the objects to tick
+	 * @param deltaTime the time interval since the last rendering occurred
+	 */
+	public void tick(Array<T> gameObjects, float deltaTime) {
+		snapshot.capture(gameObjects);
+		this.gameObjects = gameObjects;
+		this.deltaTime = deltaTime;
+		try {
+			workerPool.forEach(gameObjects.size, thinkTask);
+		} finally {
+			this.gameObjects = null;
+		}
+		for(int i = 0; i < gameObjects.size; i++) {
+			gameObjects.get(i).apply(deltaTime);
+		}
+	}
+	
+	/**
+	 * @return the snapshot taken by the last {@link #tick(Array, float)}
+	 */
+	public ObjectSnapshot getSnapshot() {
+		return snapshot;
+	}
+	
+	/**
+	 * @return the amount of threads used for thinking
+	 */
+	public int getThreadCount() {
+		return workerPool.getThreadCount();
+	}
+	
+	/**
+	 * @return the {@link WorkerPool} thinking is done on, use it to tune the grain size
+	 */
+	public WorkerPool getWorkerPool() {
+		return workerPool;
+	}
+	
+	@Override
+	public void dispose() {
+		workerPool.dispose();
+	}
+
+}
@@ -44,6 +44,13 @@ public abstract class RichGameObject extends BasicGameObject {
 	
 	
 	protected float stateTime;
+	
+	/** Reused by the collision checks in {@link #tryMove(Vector2)} so that moving does not allocate */
+	private final Rectangle collisionBounds = new Rectangle();
+	
+	/** Where this object wants to move, resolved later by a {@link ParallelMoveResolver} */
+	private final Vector2 requestedPosition = new Vector2();
+	private boolean hasRequestedMove;
 
 	//TODO: For now only fixed keyboard, fix later to map to any keys or gamepad or touchpad
 	protected BaseInput input;
@@ -315,7 +322,8 @@ public abstract class RichGameObject extends BasicGameObject {
 	}
 	
 	/**
-	 * Checks for collision with walls and doors in all directions
+	 * Checks for collision with walls and doors in all directions.
+	 * Does not allocate, the collision bounds are kept in a reused scratch {@link Rectangle}
 	 * @param newPosition where we want to go
 	 * @return 
 	 */
@@ -333,15 +341,59 @@ public abstract class RichGameObject extends BasicGameObject {
 		return false;
 	}
 
+	/**
+	 * Requests a move that is resolved later with {@link #tryMove(Vector2)} by a {@link ParallelMoveResolver}, 
+	 * instead of resolving it right away. Lets the collision resolution of many objects run in parallel.
+	 * @param x the x position we want to go to
+	 * @param y the y position we want to go to
+	 */
+	public void requestMove(float x, float y) {
+		this.requestedPosition.set(x, y);
+		this.hasRequestedMove = true;
+	}
+	
+	/**
+	 * @return whether or not a move has been requested and not yet resolved
+	 */
+	public boolean hasRequestedMove() {
+		return hasRequestedMove;
+	}
+	
+	/**
+	 * Resolves the move requested with {@link #requestMove(float, float)}, if any. May be called from a worker thread
+	 * so it must only change the state of this object.
+	 */
+	void resolveRequestedMove() {
+		if(hasRequestedMove) {
+			tryMove(requestedPosition);
+		}
+	}
+	
+	/**
+	 * Called by the {@link ParallelMoveResolver} on the simulation thread, in a fixed order, once all requested
+	 * moves have been resolved. Reacting to the outcome of the move (landing, bumping into walls etc.)
+	 * that affects other objects should be done here. Does nothing by default.
+	 */
+	protected void onMoveResolved() {}
+	
+	/**
+	 * Clears the requested move and calls {@link #onMoveResolved()}
+	 */
+	void finishRequestedMove() {
+		if(hasRequestedMove) {
+			hasRequestedMove = false;
+			onMoveResolved();
+		}
+	}
+
 	protected void handleVerticalCollisionFromAbove(Vector2 newPosition) {
-		Rectangle tmpBounds = new Rectangle(bounds);
+		Rectangle tmpBounds = collisionBounds.set(bounds);
 		tmpBounds.y = newPosition.y;
 		tmpBounds.height = (newPosition.y - bounds.y) * -1;
 		Rectangle downBounds = collisionHandler.getBoundsAt(tmpBounds, (byte)(Filter.HARD|Filter.SOFT), this);
 		if(downBounds!=null) {
 			onGround = true;
-			Vector2 groundedPosition = new Vector2(position.x, downBounds.y + downBounds.height);
-			setPosition(groundedPosition);
+			setPosition(position.x, downBounds.y + downBounds.height);
 		} else {
 			onGround = false;
 			setPosition(position.x, newPosition.y);
@@ -349,7 +401,7 @@ public abstract class RichGameObject extends BasicGameObject {
 	}
 
 	protected void handleVerticalCollisionFromBelow(Vector2 newPosition) {
-		Rectangle headBounds = new Rectangle(bounds);
+		Rectangle headBounds = collisionBounds.set(bounds);
 		headBounds.y += headBounds.height;
 		headBounds.height = 1;
 		Rectangle topBounds = collisionHandler.getBoundsAt(headBounds, (byte)(Filter.HARD), this);
@@ -361,7 +413,7 @@ public abstract class RichGameObject extends BasicGameObject {
 	}
 
 	protected void handleHorizontalCollision(Vector2 newPosition) {
-		Rectangle tmpHorzBounds = new Rectangle(bounds);
+		Rectangle tmpHorzBounds = collisionBounds.set(bounds);
 		tmpHorzBounds.x = newPosition.x + left;
 		Rectangle horzBounds = collisionHandler.getBoundsAt(tmpHorzBounds, (byte)(Filter.HARD), this);
 		if(horzBounds!=null) {
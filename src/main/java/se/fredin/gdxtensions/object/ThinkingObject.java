@@ -0,0 +1,30 @@
+package se.fredin.gdxtensions.object;
+
+/**
+ * A game object whose update is split in two phases so that it can be run by a {@link ParallelTicker}.
+ * <br>
+ * {@link #think(float, ObjectSnapshot)} is called in parallel with the other objects. It may read the frozen
+ * {@link ObjectSnapshot} and its own state but only write to its own fields, typically an intent like a 
+ * wanted velocity, a target or a weapon to fire. It must not move, spawn or touch any other object.
+ * <br>
+ * {@link #apply(float)} is then called on the calling thread, one object at a time in a fixed order, 
+ * and commits the intent: moving, resolving collisions, spawning projectiles and so on.
+ * @author Johan Fredin
+ *
+ */
+public interface ThinkingObject {
+	
+	/**
+	 * Decide what to do this step, called from a worker thread
+	 * @param deltaTime the time interval since the last rendering occurred
+	 * @param snapshot the positions and bounds of every object at the start of the step
+	 */
+	void think(float deltaTime, ObjectSnapshot snapshot);
+	
+	/**
+	 * Commit what was decided in {@link #think(float, ObjectSnapshot)}, called from the calling thread
+	 * @param deltaTime the time interval since the last rendering occurred
+	 */
+	void apply(float deltaTime);
+
+}
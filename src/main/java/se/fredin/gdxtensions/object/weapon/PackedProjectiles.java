@@ -0,0 +1,413 @@
+package se.fredin.gdxtensions.object.weapon;
+
+import java.util.Arrays;
+
+import se.fredin.gdxtensions.collision.CollisionHandler;
+import se.fredin.gdxtensions.collision.CollisionHandler.Filter;
+import se.fredin.gdxtensions.collision.SweepResult;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Lightweight alternative to {@link Projectile} for plain bullets. Instead of one {@link Projectile} per bullet,
+ * with its own vectors, bounds and references, every bullet is a row in parallel primitive arrays holding
+ * its position, velocity, size and the index of its {@link TextureRegion}. {@link #update(float)} moves,
+ * collides and retires all bullets in one loop and {@link #render(SpriteBatch)} draws them in one pass.
+ * <br>
+ * The arrays are kept dense, retiring a bullet moves the last one into its place, so the raw arrays
+ * returned by for example {@link #getXs()} are valid from 0 to {@link #size()} - 1 in no particular order.
+ * Every {@link Weapon} owns one, bullets are fired into it with
+ * {@link Weapon#shoot(float, float, float, float, int)}.
+ * <br>
+ * Bullets can also be retired when they have flown further than {@link #setMaxDistance(float)}, lived longer
+ * than {@link #setMaxLifetime(float)} or left the {@link #setCullBounds(float, float, float, float)}, e.g the camera view.
+ * These checks are done in a separate pass of plain arithmetic over the arrays before any collision query.
+ * @author Johan Fredin
+ *
+ */
+public class PackedProjectiles {
+
+	private float[] x, y;
+	private float[] velocityX, velocityY;
+	private float[] width, height;
+	private int[] regionIndices;
+	private float[] age;
+	private boolean[] isExpired;
+	private int size;
+	private float maxDistance, maxLifetime;
+	private boolean isCulled;
+	private float cullMinX, cullMinY, cullMaxX, cullMaxY;
+	private Array<TextureRegion> regions = new Array<TextureRegion>();
+	private CollisionHandler collisionHandler;
+	private boolean isSweptCollision;
+	private SweepResult sweepResult;
+	private final Rectangle bounds = new Rectangle();
+
+	/**
+	 * Construct a new {@link PackedProjectiles} with room for 64 bullets before growing
+	 */
+	public PackedProjectiles() {
+		this(64);
+	}
+
+	/**
+	 * Construct a new {@link PackedProjectiles}
+	 * @param capacity the amount of bullets to make room for before growing
+	 */
+	public PackedProjectiles(int capacity) {
+		capacity = Math.max(1, capacity);
+		this.x = new float[capacity];
+		this.y = new float[capacity];
+		this.velocityX = new float[capacity];
+		this.velocityY = new float[capacity];
+		this.width = new float[capacity];
+		this.height = new float[capacity];
+		this.regionIndices = new int[capacity];
+		this.age = new float[capacity];
+		this.isExpired = new boolean[capacity];
+	}
+
+	/**
+	 * Registers a {@link TextureRegion} bullets can be drawn with
+	 * @param region the region to draw the bullets with, its size is used as the size of the bullets, can not be null
+	 * @return the index to pass to {@link #add(float, float, float, float, int)}
+	 */
+	public int addRegion(TextureRegion region) {
+		if(region == null) {
+			throw new IllegalArgumentException("region must not be null");
+		}
+		regions.add(region);
+		return regions.size - 1;
+	}
+
+	/**
+	 * @param region the region to draw bullets with, can not be null
+	 * @return the index of given region, registering it with {@link #addRegion(TextureRegion)} if it is not registered yet
+	 */
+	public int getRegionIndex(TextureRegion region) {
+		int index = regions.indexOf(region, true);
+		return index != -1 ? index : addRegion(region);
+	}
+
+	/**
+	 * @param regionIndex an index returned by {@link #addRegion(TextureRegion)}
+	 * @return the registered {@link TextureRegion}
+	 */
+	public TextureRegion getRegion(int regionIndex) {
+		return regions.get(regionIndex);
+	}
+
+	/**
+	 * Adds a bullet the size of its {@link TextureRegion}
+	 * @param x the x position
+	 * @param y the y position
+	 * @param velocityX the velocity along the x axis in pixels per second
+	 * @param velocityY the velocity along the y axis in pixels per second
+	 * @param regionIndex an index returned by {@link #addRegion(TextureRegion)}
+	 * @return the index of the new bullet, valid until the next bullet is retired
+	 */
+	public int add(float x, float y, float velocityX, float velocityY, int regionIndex) {
+		TextureRegion region = regions.get(regionIndex);
+		return add(x, y, velocityX, velocityY, region.getRegionWidth(), region.getRegionHeight(), regionIndex);
+	}
+
+	/**
+	 * Adds a bullet
+	 * @param x the x position
+	 * @param y the y position
+	 * @param velocityX the velocity along the x axis in pixels per second
+	 * @param velocityY the velocity along the y axis in pixels per second
+	 * @param width the width of the bounds
+	 * @param height the height of the bounds
+	 * @param regionIndex an index returned by {@link #addRegion(TextureRegion)}
+	 * @return the index of the new bullet, valid until the next bullet is retired
+	 */
+	public int add(float x, float y, float velocityX, float velocityY, float width, float height, int regionIndex) {
+		int index = size++;
+		ensureCapacity(size);
+		this.x[index] = x;
+		this.y[index] = y;
+		this.velocityX[index] = velocityX;
+		this.velocityY[index] = velocityY;
+		this.width[index] = width;
+		this.height[index] = height;
+		this.regionIndices[index] = regionIndex;
+		this.age[index] = 0f;
+		return index;
+	}
+
+	/**
+	 * Retires the bullets that are out of range, out of time or outside the cull bounds, then moves 
+	 * the rest by their velocity and retires the ones that hit a hard block.
+	 * Without a {@link CollisionHandler} the bullets only move.
+	 * @param deltaTime the time interval since the last rendering occurred
+	 * @return the amount of bullets retired
+	 */
+	public int update(float deltaTime) {
+		expire(deltaTime);
+		int retired = 0;
+		// Backwards so a retired bullet can be swapped with the last one, which has already been updated
+		for(int i = size - 1; i >= 0; i--) {
+			if(isExpired[i]) {
+				remove(i);
+				retired++;
+				continue;
+			}
+			float dx = velocityX[i] * deltaTime;
+			float dy = velocityY[i] * deltaTime;
+			if(collisionHandler == null) {
+				x[i] += dx;
+				y[i] += dy;
+				continue;
+			}
+
+			boolean isCollidedWith;
+			if(isSweptCollision) {
+				bounds.set(x[i], y[i], width[i], height[i]);
+				isCollidedWith = collisionHandler.sweep(bounds, dx, dy, Filter.HARD, sweepResult);
+			} else {
+				bounds.set(x[i] + dx, y[i] + dy, width[i], height[i]);
+				isCollidedWith = collisionHandler.isCollisionWithHardBlock(bounds);
+			}
+			if(isCollidedWith) {
+				remove(i);
+				retired++;
+			} else {
+				x[i] += dx;
+				y[i] += dy;
+			}
+		}
+		return retired;
+	}
+
+	/**
+	 * Ages every bullet and flags the ones to retire. Kept free of calls and early exits so the loop
+	 * stays plain arithmetic over the arrays. Bullets fly in a straight line at a constant speed, 
+	 * so the distance flown is the age times the speed.
+	 */
+	private void expire(float deltaTime) {
+		float lifetimeLimit = maxLifetime > 0f ? maxLifetime : Float.POSITIVE_INFINITY;
+		float distanceLimit = maxDistance > 0f ? maxDistance * maxDistance : Float.POSITIVE_INFINITY;
+		float minX = isCulled ? cullMinX : Float.NEGATIVE_INFINITY, minY = isCulled ? cullMinY : Float.NEGATIVE_INFINITY;
+		float maxX = isCulled ? cullMaxX : Float.POSITIVE_INFINITY, maxY = isCulled ? cullMaxY : Float.POSITIVE_INFINITY;
+		for(int i = 0; i < size; i++) {
+			float time = age[i] + deltaTime;
+			age[i] = time;
+			float speed2 = velocityX[i] * velocityX[i] + velocityY[i] * velocityY[i];
+			isExpired[i] = time > lifetimeLimit | time * time * speed2 > distanceLimit |
+						   x[i] + width[i] < minX | x[i] > maxX | y[i] + height[i] < minY | y[i] > maxY;
+		}
+	}
+
+	/**
+	 * Draws every bullet with its {@link TextureRegion}, stretched to the size of the bullet
+	 * @param batch the {@link SpriteBatch} to draw with, must have been begun
+	 */
+	public void render(SpriteBatch batch) {
+		for(int i = 0; i < size; i++) {
+			batch.draw(regions.get(regionIndices[i]), x[i], y[i], width[i], height[i]);
+		}
+	}
+
+	/**
+	 * Retires a bullet by moving the last bullet into its place
+	 * @param index the index of the bullet, 0 to {@link #size()} - 1
+	 */
+	public void remove(int index) {
+		int last = --size;
+		if(index != last) {
+			x[index] = x[last];
+			y[index] = y[last];
+			velocityX[index] = velocityX[last];
+			velocityY[index] = velocityY[last];
+			width[index] = width[last];
+			height[index] = height[last];
+			regionIndices[index] = regionIndices[last];
+			age[index] = age[last];
+		}
+	}
+
+	/**
+	 * Makes room for given amount of bullets on top of the live ones, so adding a burst of bullets grows the arrays at most once
+	 * @param amount the amount of bullets about to be added
+	 */
+	public void reserve(int amount) {
+		ensureCapacity(size + amount);
+	}
+
+	/**
+	 * Retires all bullets
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * @return the amount of live bullets
+	 */
+	public int size() {
+		return size;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if(capacity <= x.length) {
+			return;
+		}
+		int newCapacity = Math.max(capacity, x.length * 2);
+		x = Arrays.copyOf(x, newCapacity);
+		y = Arrays.copyOf(y, newCapacity);
+		velocityX = Arrays.copyOf(velocityX, newCapacity);
+		velocityY = Arrays.copyOf(velocityY, newCapacity);
+		width = Arrays.copyOf(width, newCapacity);
+		height = Arrays.copyOf(height, newCapacity);
+		regionIndices = Arrays.copyOf(regionIndices, newCapacity);
+		age = Arrays.copyOf(age, newCapacity);
+		isExpired = Arrays.copyOf(isExpired, newCapacity);
+	}
+
+	/**
+	 * Set how far in pixels a bullet can fly before it is retired
+	 * @param maxDistance the distance, 0 for no limit
+	 */
+	public void setMaxDistance(float maxDistance) {
+		this.maxDistance = maxDistance;
+	}
+
+	/**
+	 * @return how far in pixels a bullet can fly before it is retired, 0 for no limit
+	 */
+	public float getMaxDistance() {
+		return maxDistance;
+	}
+
+	/**
+	 * Set how long in seconds a bullet can live before it is retired
+	 * @param maxLifetime the time, 0 for no limit
+	 */
+	public void setMaxLifetime(float maxLifetime) {
+		this.maxLifetime = maxLifetime;
+	}
+
+	/**
+	 * @return how long in seconds a bullet can live before it is retired, 0 for no limit
+	 */
+	public float getMaxLifetime() {
+		return maxLifetime;
+	}
+
+	/**
+	 * Set the bounds outside of which bullets are retired, e.g the camera view with a margin
+	 * @param x the x position of the bounds
+	 * @param y the y position of the bounds
+	 * @param width the width of the bounds
+	 * @param height the height of the bounds
+	 */
+	public void setCullBounds(float x, float y, float width, float height) {
+		this.isCulled = true;
+		this.cullMinX = x;
+		this.cullMinY = y;
+		this.cullMaxX = x + width;
+		this.cullMaxY = y + height;
+	}
+
+	/**
+	 * Stops retiring bullets outside the cull bounds
+	 */
+	public void clearCullBounds() {
+		this.isCulled = false;
+	}
+
+	/**
+	 * @return whether or not bullets outside the cull bounds are retired
+	 */
+	public boolean isCulled() {
+		return isCulled;
+	}
+
+	/**
+	 * Set the {@link CollisionHandler} the bullets collide against, null to not collide at all
+	 * @param collisionHandler
+	 */
+	public void setCollisionHandler(CollisionHandler collisionHandler) {
+		this.collisionHandler = collisionHandler;
+	}
+
+	/**
+	 * @return the {@link CollisionHandler} the bullets collide against, may be null
+	 */
+	public CollisionHandler getCollisionHandler() {
+		return collisionHandler;
+	}
+
+	/**
+	 * Set whether or not to use swept (continuous) collision, see {@link Projectile#setSweptCollision(boolean)}
+	 * @param isSweptCollision
+	 */
+	public void setSweptCollision(boolean isSweptCollision) {
+		this.isSweptCollision = isSweptCollision;
+		if(isSweptCollision && sweepResult == null) {
+			this.sweepResult = new SweepResult();
+		}
+	}
+
+	/**
+	 * @return whether or not swept (continuous) collision is used
+	 */
+	public boolean isSweptCollision() {
+		return isSweptCollision;
+	}
+
+	/**
+	 * @return the x positions, valid from 0 to {@link #size()} - 1
+	 */
+	public float[] getXs() {
+		return x;
+	}
+
+	/**
+	 * @return the y positions, valid from 0 to {@link #size()} - 1
+	 */
+	public float[] getYs() {
+		return y;
+	}
+
+	/**
+	 * @return the velocities along the x axis, valid from 0 to {@link #size()} - 1
+	 */
+	public float[] getVelocityXs() {
+		return velocityX;
+	}
+
+	/**
+	 * @return the velocities along the y axis, valid from 0 to {@link #size()} - 1
+	 */
+	public float[] getVelocityYs() {
+		return velocityY;
+	}
+
+	/**
+	 * @return the time in seconds each bullet has lived, valid from 0 to {@link #size()} - 1
+	 */
+	public float[] getAges() {
+		return age;
+	}
+
+	/**
+	 * @return the region indices, valid from 0 to {@link #size()} - 1
+	 */
+	public int[] getRegionIndices() {
+		return regionIndices;
+	}
+
+	@Override
+	public String toString() {
+		return "PackedProjectiles\n" +
+			   "size=" + size + "\n" +
+			   "capacity=" + x.length + "\n" +
+			   "regions=" + regions.size + "\n";
+	}
+
+}
@@ -1,6 +1,8 @@
 package se.fredin.gdxtensions.object.weapon;
 
 import se.fredin.gdxtensions.collision.CollisionHandler;
+import se.fredin.gdxtensions.collision.CollisionHandler.Filter;
+import se.fredin.gdxtensions.collision.SweepResult;
 import se.fredin.gdxtensions.object.BasicGameObject;
 import se.fredin.gdxtensions.utils.Settings;
 import se.fredin.gdxtensions.utils.logging.LogUtils;
@@ -20,7 +22,10 @@ import com.badlogic.gdx.utils.Pool.Poolable;
 public class Projectile extends BasicGameObject implements Poolable {
 	
 	private boolean isShootASAP = true;
+	private boolean isSweptCollision;
 	private float angle;
+	private float lifetime;
+	private SweepResult sweepResult;
 	
 	/**
 	 * Construct a new {@link Projectile} without setting anything
@@ -119,6 +124,7 @@ public class Projectile extends BasicGameObject implements Poolable {
 			  projectile.getBoundsHeight(), projectile.right, projectile.bottom, 
 			  projectile.left, projectile.top);
 		this.isShootASAP = projectile.isShootASAP;
+		this.setSweptCollision(projectile.isSweptCollision);
 	}
 
 	@Override
@@ -133,12 +139,52 @@ public class Projectile extends BasicGameObject implements Poolable {
 	
 	public void tick(float deltaTime, float angle) {
 		if(isShootASAP) {
-			this.position.add((velocity.x * angle) * deltaTime, (velocity.y * angle) * deltaTime);
-			this.bounds.setPosition(position);
-			this.isCollidedWith = collisionHandler.isCollisionWithHardBlock(bounds);
+			this.lifetime += deltaTime;
+			float dx = (velocity.x * angle) * deltaTime;
+			float dy = (velocity.y * angle) * deltaTime;
+			if(isSweptCollision) {
+				this.isCollidedWith = collisionHandler.sweep(bounds, dx, dy, Filter.HARD, sweepResult);
+				if(isCollidedWith) {
+					dx *= sweepResult.getTime();
+					dy *= sweepResult.getTime();
+				}
+				this.position.add(dx, dy);
+				this.bounds.setPosition(position);
+			} else {
+				this.position.add(dx, dy);
+				this.bounds.setPosition(position);
+				this.isCollidedWith = collisionHandler.isCollisionWithHardBlock(bounds);
+			}
 		}
 	}
 	
+	/**
+	 * Set whether or not to use swept (continuous) collision. When enabled the projectile checks
+	 * the whole path it travels during a tick and stops at the first hard block on the way instead of 
+	 * only checking where it ends up. Prevents fast projectiles from passing through thin blocks.
+	 * @param isSweptCollision
+	 */
+	public void setSweptCollision(boolean isSweptCollision) {
+		this.isSweptCollision = isSweptCollision;
+		if(isSweptCollision && sweepResult == null) {
+			this.sweepResult = new SweepResult();
+		}
+	}
+	
+	/**
+	 * @return whether or not swept (continuous) collision is used
+	 */
+	public boolean isSweptCollision() {
+		return isSweptCollision;
+	}
+	
+	/**
+	 * @return the result of the last swept collision check, null if swept collision has never been enabled
+	 */
+	public SweepResult getSweepResult() {
+		return sweepResult;
+	}
+	
 	/**
 	 * @return whether or not this projectile can be fired
 	 */
@@ -154,6 +200,13 @@ public class Projectile extends BasicGameObject implements Poolable {
 		this.isShootASAP = canMove;
 	}
 	
+	/**
+	 * @return the time in seconds this projectile has been flying since it was fired
+	 */
+	public float getLifetime() {
+		return lifetime;
+	}
+	
 	/**
 	 * If you want the bullet to sort of bend a bit you can angle it to stray from its default path.
 	 * @param angle
@@ -179,7 +232,9 @@ public class Projectile extends BasicGameObject implements Poolable {
 		this.position.set(0, 0);
 		this.velocity.set(Settings.defaultProjectileSpeed, 0);
 		this.top = this.bottom = this.left = this.right = this.speed = 0;
+		this.lifetime = 0;
 		this.bounds.setPosition(this.position);
+		storePreviousPosition();
 	}
 	
 
@@ -1,15 +1,27 @@
 package se.fredin.gdxtensions.object.weapon;
 
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.Pool;
 
 /**
  * Simple extension of the LibGDX {@link Pool} class, used here for pooling
- * {@link Projectile} objects.
+ * {@link Projectile} objects. Keeps counters of how it is used for tuning, see
+ * {@link #getMisses()} and {@link #getPeakInUse()}, and can be filled up front with
+ * {@link #prewarm(int)} so the first burst of fire does not allocate.
+ * <br>
+ * Weapons firing the same kind of projectile can share one pool obtained with
+ * {@link #getShared(String)} instead of each holding their own free projectiles.
  * @author Johan Fredin
  *
  */
 public class ProjectilesPool extends Pool<Projectile> {
-	
+
+	private static final ObjectMap<String, ProjectilesPool> sharedPools = new ObjectMap<String, ProjectilesPool>();
+
+	private long obtainCount, freeCount, misses;
+	private int inUse, peakInUse;
+
 	/**
 	 * Construct a new {@link ProjectilesPool}
 	 * @param initialCapacity the initial capacity of the {@link Pool}
@@ -18,15 +30,159 @@ public class ProjectilesPool extends Pool<Projectile> {
 	public ProjectilesPool(int initialCapacity, int max) {
 		super(initialCapacity, max);
 	}
-	
+
 	/**
 	 * Create a new {@link Projectile} without any properties set.
-	 * This method gets called (duh) when the pool does not have any 
+	 * This method gets called (duh) when the pool does not have any
 	 * reusable objects and needs to create a new one
 	 */
 	@Override
 	protected Projectile newObject() {
 		return new Projectile();
 	}
-	
-}
\ No newline at end of file
+
+	@Override
+	public Projectile obtain() {
+		if(getFree() == 0) {
+			misses++;
+		}
+		obtainCount++;
+		if(++inUse > peakInUse) {
+			peakInUse = inUse;
+		}
+		return super.obtain();
+	}
+
+	@Override
+	public void free(Projectile projectile) {
+		super.free(projectile);
+		freeCount++;
+		inUse--;
+	}
+
+	/**
+	 * Frees all non null projectiles of given {@link Array}, null entries are skipped just like {@link Pool#freeAll(Array)} does
+	 */
+	@Override
+	public void freeAll(Array<Projectile> projectiles) {
+		super.freeAll(projectiles);
+		int freed = 0;
+		for(int i = 0; i < projectiles.size; i++) {
+			if(projectiles.get(i) != null) {
+				freed++;
+			}
+		}
+		freeCount += freed;
+		inUse -= freed;
+	}
+
+	/**
+	 * A {@link Projectile} created by {@link #newObject()} that has never been fired has nothing to reset
+	 */
+	@Override
+	protected void reset(Projectile projectile) {
+		if(projectile.getPosition() != null) {
+			super.reset(projectile);
+		}
+	}
+
+	/**
+	 * Creates new {@link Projectile} objects until the pool holds given amount of free ones,
+	 * call when loading a level. Not counted as misses.
+	 * @param amount the amount of free projectiles the pool should hold, capped to the max of the pool
+	 */
+	public void prewarm(int amount) {
+		amount = Math.min(amount, max);
+		for(int i = getFree(); i < amount; i++) {
+			super.free(newObject());
+		}
+	}
+
+	/**
+	 * @return the amount of projectiles obtained since the last {@link #resetStats()}
+	 */
+	public long getObtainCount() {
+		return obtainCount;
+	}
+
+	/**
+	 * @return the amount of projectiles freed since the last {@link #resetStats()}
+	 */
+	public long getFreeCount() {
+		return freeCount;
+	}
+
+	/**
+	 * @return the amount of times the pool had no free projectile and had to create a new one
+	 * since the last {@link #resetStats()}
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return the amount of projectiles obtained and not yet freed
+	 */
+	public int getInUse() {
+		return inUse;
+	}
+
+	/**
+	 * @return the highest amount of projectiles in use at once since the last {@link #resetStats()},
+	 * a good amount to {@link #prewarm(int)}
+	 */
+	public int getPeakInUse() {
+		return peakInUse;
+	}
+
+	/**
+	 * Resets the obtain, free and miss counters and the peak
+	 */
+	public void resetStats() {
+		obtainCount = freeCount = misses = 0;
+		peakInUse = inUse;
+	}
+
+	/**
+	 * @param archetype the name of the kind of projectile, e.g "rifle"
+	 * @return the pool shared by all weapons firing given kind of projectile, created with
+	 * no max if it does not exist yet
+	 */
+	public static ProjectilesPool getShared(String archetype) {
+		return getShared(archetype, 16, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param archetype the name of the kind of projectile, e.g "rifle"
+	 * @param initialCapacity the initial capacity of the pool if it does not exist yet
+	 * @param max the max amount of free projectiles of the pool if it does not exist yet
+	 * @return the pool shared by all weapons firing given kind of projectile
+	 */
+	public static ProjectilesPool getShared(String archetype, int initialCapacity, int max) {
+		ProjectilesPool pool = sharedPools.get(archetype);
+		if(pool == null) {
+			pool = new ProjectilesPool(initialCapacity, max);
+			sharedPools.put(archetype, pool);
+		}
+		return pool;
+	}
+
+	/**
+	 * Forgets all shared pools, e.g when leaving a level. Weapons still holding a shared pool keep using it
+	 */
+	public static void clearShared() {
+		sharedPools.clear();
+	}
+
+	@Override
+	public String toString() {
+		return "ProjectilesPool\n" +
+			   "free=" + getFree() + "\n" +
+			   "in use=" + inUse + "\n" +
+			   "peak in use=" + peakInUse + "\n" +
+			   "obtained=" + obtainCount + "\n" +
+			   "freed=" + freeCount + "\n" +
+			   "misses=" + misses + "\n";
+	}
+
+}
@@ -1,60 +1,195 @@
 package se.fredin.gdxtensions.object.weapon;
 
+import com.badlogic.gdx.math.MathUtils;
 
+/**
+ * A {@link Weapon} firing a spread of pellets per shot, how many and how wide is decided by its {@link SpreadMode}.
+ * Pellets are plain bullets fired into the {@link PackedProjectiles} of the weapon, each one going in the direction
+ * of the shot rotated by the precomputed angle of its place in the spread. A shot uses one ammo and can only be fired
+ * if there is room for all of its pellets.
+ * @author Johan Fredin
+ *
+ */
 public class Shotgun extends Weapon {
-	
+
 	private SpreadMode spreadMode;
-	
+
+	/**
+	 * Construct a new {@link Shotgun} using {@link SpreadMode#TRIPPLE}
+	 * @param firingMode what type of {@link FiringMode} to use
+	 */
 	public Shotgun(FiringMode firingMode) {
 		this(firingMode, SpreadMode.TRIPPLE);
 	}
-	
+
+	/**
+	 * Construct a new {@link Shotgun}
+	 * @param firingMode what type of {@link FiringMode} to use
+	 * @param spreadMode what type of {@link SpreadMode} to use
+	 */
 	public Shotgun(FiringMode firingMode, SpreadMode spreadMode) {
 		super(firingMode);
+		this.spreadMode = spreadMode;
 	}
-	
+
 	public void setSpreadMode(SpreadMode spreadMode) {
 		this.spreadMode = spreadMode;
 	}
-	
+
 	public SpreadMode getSpreadMode() {
 		return spreadMode;
 	}
-	
+
+	/**
+	 * Fires a spread of pellets looking like given {@link Projectile}, from its position and in the direction of its velocity
+	 * @param projectile the {@link Projectile} holding the position, velocity, size and texture of the pellets
+	 */
 	@Override
 	public void shoot(Projectile projectile) {
-		if(canShoot()) {
-			
-			Projectile obtainedProjectile = projectilesPool.obtain();
-			this.transferValuesFrom(obtainedProjectile, projectile);
-			projectiles.add(obtainedProjectile);
-			for(byte i = 0; i < spreadMode.amount; i++) {
-				
-			}
-		}		
+		this.shoot(projectile, 0f);
 	}
-	
+
+	/**
+	 * Fires a spread of pellets looking like given {@link Projectile}, from its position and in the direction of its velocity
+	 * rotated by given angle. The pellets then stray from that direction by the angles of the {@link SpreadMode}.
+	 * Whether the pellets use swept collision is taken from the projectile, the {@link se.fredin.gdxtensions.collision.CollisionHandler}
+	 * they collide against is the one set by {@link #setCollisionHandler(se.fredin.gdxtensions.collision.CollisionHandler)}
+	 * @param projectile the {@link Projectile} holding the position, velocity, size and texture of the pellets, its texture can not be null, see {@link PackedProjectiles#addRegion(com.badlogic.gdx.graphics.g2d.TextureRegion)}
+	 * @param angle the amount in degrees the whole spread strays from the direction of the velocity
+	 */
+	@Override
+	public void shoot(Projectile projectile, float angle) {
+		if(!canShoot()) {
+			return;
+		}
+		packedProjectiles.setSweptCollision(projectile.isSweptCollision());
+		int regionIndex = packedProjectiles.getRegionIndex(projectile.getGameObjectTexture());
+		float velocityX = projectile.getVelocity().x;
+		float velocityY = projectile.getVelocity().y;
+		if(angle != 0f) {
+			float cos = MathUtils.cosDeg(angle);
+			float sin = MathUtils.sinDeg(angle);
+			float rotatedX = velocityX * cos - velocityY * sin;
+			velocityY = velocityX * sin + velocityY * cos;
+			velocityX = rotatedX;
+		}
+		shoot(projectile.getPosition().x, projectile.getPosition().y, velocityX, velocityY,
+			  projectile.getBoundsWidth(), projectile.getBoundsHeight(), regionIndex);
+	}
+
+	/**
+	 * Fires a spread of pellets the size of their {@link com.badlogic.gdx.graphics.g2d.TextureRegion}
+	 */
+	@Override
+	public boolean shoot(float x, float y, float velocityX, float velocityY, int regionIndex) {
+		return shoot(x, y, velocityX, velocityY, packedProjectiles.getRegion(regionIndex).getRegionWidth(),
+					 packedProjectiles.getRegion(regionIndex).getRegionHeight(), regionIndex);
+	}
+
+	/**
+	 * Fires a spread of pellets
+	 * @param x the x position of the pellets
+	 * @param y the y position of the pellets
+	 * @param velocityX the velocity of the middle pellet along the x axis in pixels per second
+	 * @param velocityY the velocity of the middle pellet along the y axis in pixels per second
+	 * @param width the width of the pellets
+	 * @param height the height of the pellets
+	 * @param regionIndex an index returned by {@link PackedProjectiles#addRegion(com.badlogic.gdx.graphics.g2d.TextureRegion)}
+	 * @return whether or not the spread was fired
+	 */
+	public boolean shoot(float x, float y, float velocityX, float velocityY, float width, float height, int regionIndex) {
+		if(!canShoot()) {
+			return false;
+		}
+		if(!isUnlimitedAmmo) {
+			ammo--;
+		}
+
+		int amount = spreadMode.amount;
+		float[] cos = spreadMode.cos, sin = spreadMode.sin;
+		packedProjectiles.reserve(amount);
+		for(int i = 0; i < amount; i++) {
+			packedProjectiles.add(x, y, velocityX * cos[i] - velocityY * sin[i], velocityX * sin[i] + velocityY * cos[i],
+								  width, height, regionIndex);
+		}
+		spawnedSinceTick += amount;
+		return true;
+	}
+
+	/**
+	 * @return whether or not a spread can be fired, in addition to the standard behavior there must be room for all of its pellets
+	 */
+	@Override
+	public boolean canShoot() {
+		return super.canShoot() && maxCapacity - getActiveProjectileCount() >= spreadMode.amount;
+	}
+
 	@Override
 	public void tick(float deltaTime) {
-	
+		if(timer > shootingInterval) {
+			timer = 0.0f;
+		}
+		timer += deltaTime;
+
+		tickProjectiles(deltaTime);
 	}
 
+	/**
+	 * How many pellets a {@link Shotgun} fires per shot and how wide they spread. The direction of
+	 * every pellet is computed once per mode, so firing does not need any trigonometry.
+	 * @author Johan Fredin
+	 *
+	 */
 	public static enum SpreadMode {
-		
-		TRIPPLE((byte)3),
-		FIVE_SPREAD((byte)5),
-		SEVEN_SPREAD((byte)7);
-		
+
+		TRIPPLE((byte)3, 20f),
+		FIVE_SPREAD((byte)5, 30f),
+		SEVEN_SPREAD((byte)7, 40f);
+
 		private byte amount;
-		
-		private SpreadMode(byte amount) {
+		private float spreadDegrees;
+		private float[] cos, sin;
+
+		private SpreadMode(byte amount, float spreadDegrees) {
 			this.amount = amount;
+			this.spreadDegrees = spreadDegrees;
+			this.cos = new float[amount];
+			this.sin = new float[amount];
+			for(int i = 0; i < amount; i++) {
+				// Evenly from -spread / 2 to spread / 2, the middle pellet going straight ahead
+				float degrees = -spreadDegrees / 2f + spreadDegrees * i / (amount - 1);
+				cos[i] = (float) Math.cos(degrees * MathUtils.degreesToRadians);
+				sin[i] = (float) Math.sin(degrees * MathUtils.degreesToRadians);
+			}
 		}
-		
+
 		public byte getAmount() {
 			return amount;
 		}
-		
+
+		/**
+		 * @return the angle in degrees between the two outermost pellets
+		 */
+		public float getSpreadDegrees() {
+			return spreadDegrees;
+		}
+
+		/**
+		 * @param pellet the index of the pellet, 0 to {@link #getAmount()} - 1
+		 * @return the x component of the direction of the pellet relative to the direction of the shot
+		 */
+		public float getDirectionX(int pellet) {
+			return cos[pellet];
+		}
+
+		/**
+		 * @param pellet the index of the pellet, 0 to {@link #getAmount()} - 1
+		 * @return the y component of the direction of the pellet relative to the direction of the shot
+		 */
+		public float getDirectionY(int pellet) {
+			return sin[pellet];
+		}
+
 	}
-	
+
 }
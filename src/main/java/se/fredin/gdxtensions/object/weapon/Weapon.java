@@ -1,9 +1,12 @@
 package se.fredin.gdxtensions.object.weapon;
 
+import se.fredin.gdxtensions.collision.CollisionHandler;
 import se.fredin.gdxtensions.object.BasicGameObject;
+import se.fredin.gdxtensions.utils.GameCamera;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.Array;
 
 /**
@@ -14,6 +17,14 @@ import com.badlogic.gdx.utils.Array;
  * and avoid garbage collection. For this pool you can also specify initial and max capacity.
  * The max capacity will also be the max capacity of the {@link Projectile} {@link Array}
  * When creating a new instance a {@link FiringMode} must be specified.
+ * <br>
+ * Plain bullets that need nothing more than a position, velocity and texture can be fired into the 
+ * {@link PackedProjectiles} owned by the weapon with {@link #shoot(float, float, float, float, int)} instead, 
+ * keeping {@link Projectile} objects for special bullets. Both kinds count towards the max capacity.
+ * <br>
+ * Both kinds are retired when they hit a hard block, have flown further than the {@link #setRange(float) range},
+ * lived longer than the {@link #setMaxLifetime(float) max lifetime} or left the view of the 
+ * {@link #setCullCamera(GameCamera, float) cull camera}.
  * @author Johan Fredin
  *
  */
@@ -29,13 +40,22 @@ public abstract class Weapon extends BasicGameObject {
 	protected float timer;
 	protected float damage;
 	protected float range;
+	protected float maxLifetime;
+	protected GameCamera cullCamera;
+	protected float cullMargin;
+	protected final Rectangle cullBounds = new Rectangle();
 	protected int maxCapacity;
 	protected short ammo;
 	protected boolean isUnlimitedFiringInterval;
 	protected boolean isUnlimitedAmmo;
 	protected FiringMode firingMode;
+	/** The live projectiles, unordered so that retiring one is a constant time swap with the last one */
 	protected Array<Projectile> projectiles;
 	protected ProjectilesPool projectilesPool;
+	protected PackedProjectiles packedProjectiles;
+	protected int spawnedSinceTick;
+	protected int spawnedLastTick;
+	protected int retiredLastTick;
 	
 	/**
 	 * Construct a new {@link Weapon}
@@ -83,9 +103,11 @@ public abstract class Weapon extends BasicGameObject {
 	 */
 	public Weapon(int initialCapacity, int maxCapacity, float shootingInterval, FiringMode firingMode) {
 		this.projectilesPool = new ProjectilesPool(initialCapacity, maxCapacity);
-		this.projectiles = new Array<Projectile>(initialCapacity);
+		this.projectiles = new Array<Projectile>(false, Math.max(1, initialCapacity));
+		this.packedProjectiles = new PackedProjectiles(Math.max(64, initialCapacity));
 		this.maxCapacity = maxCapacity;
 		this.shootingInterval = shootingInterval;
+		this.firingMode = firingMode;
 	}
 	
 	/**
@@ -114,8 +136,167 @@ public abstract class Weapon extends BasicGameObject {
 			Projectile obtainedProjectile = projectilesPool.obtain();
 			obtainedProjectile.setAngle(angle);
 			this.transferValuesFrom(obtainedProjectile, projectile);
-			projectiles.add(obtainedProjectile);
+			addProjectile(obtainedProjectile);
+		}
+	}
+	
+	/**
+	 * Fires a bullet into the {@link PackedProjectiles} of this weapon, if {@link #canShoot()}
+	 * @param x the x position
+	 * @param y the y position
+	 * @param velocityX the velocity along the x axis in pixels per second
+	 * @param velocityY the velocity along the y axis in pixels per second
+	 * @param regionIndex an index returned by {@link PackedProjectiles#addRegion(TextureRegion)}
+	 * @return whether or not the bullet was fired
+	 */
+	public boolean shoot(float x, float y, float velocityX, float velocityY, int regionIndex) {
+		if(!canShoot()) {
+			return false;
 		}
+		if(!isUnlimitedAmmo) {
+			ammo--;
+		}
+		packedProjectiles.add(x, y, velocityX, velocityY, regionIndex);
+		spawnedSinceTick++;
+		return true;
+	}
+	
+	/**
+	 * Adds a fired {@link Projectile} to the live projectiles
+	 * @param projectile the projectile to add
+	 */
+	protected void addProjectile(Projectile projectile) {
+		projectiles.add(projectile);
+		spawnedSinceTick++;
+	}
+	
+	/**
+	 * Ticks every live {@link Projectile} and retires the ones that {@link #shouldRetire(Projectile)}, freeing them to the pool.
+	 * Iterates backwards so a retired projectile can be swapped with the last one, which has already been ticked, 
+	 * instead of shifting the whole array. Then updates the {@link PackedProjectiles}.
+	 * @param deltaTime the time interval since the last rendering occurred
+	 */
+	protected void tickProjectiles(float deltaTime) {
+		if(cullCamera != null) {
+			float width = cullCamera.viewportWidth * cullCamera.zoom, height = cullCamera.viewportHeight * cullCamera.zoom;
+			cullBounds.set(cullCamera.position.x - width / 2 - cullMargin, cullCamera.position.y - height / 2 - cullMargin, 
+						   width + cullMargin * 2, height + cullMargin * 2);
+			packedProjectiles.setCullBounds(cullBounds.x, cullBounds.y, cullBounds.width, cullBounds.height);
+		}
+		spawnedLastTick = spawnedSinceTick;
+		spawnedSinceTick = 0;
+		int retired = 0;
+		for(int i = projectiles.size - 1; i >= 0; i--) {
+			Projectile projectile = projectiles.get(i);
+			projectile.tick(deltaTime);
+			if(shouldRetire(projectile)) {
+				projectiles.removeIndex(i);
+				projectilesPool.free(projectile);
+				retired++;
+			}
+		}
+		retired += packedProjectiles.update(deltaTime);
+		retiredLastTick = retired;
+	}
+	
+	/**
+	 * @param projectile a live projectile that has just been ticked
+	 * @return whether or not the projectile should be removed and freed to the pool. By default
+	 * when it has hit a hard block, is out of range, has lived longer than the max lifetime, is outside the view 
+	 * of the cull camera or the weapon holds its max amount of projectiles
+	 */
+	protected boolean shouldRetire(Projectile projectile) {
+		if(projectile.isCollidedWith() || isMaxedOut()) {
+			return true;
+		}
+		float lifetime = projectile.getLifetime();
+		if(maxLifetime > 0f && lifetime > maxLifetime) {
+			return true;
+		}
+		// Projectiles fly at a constant velocity so the distance flown is the lifetime times the speed
+		if(range > 0f && lifetime * lifetime * projectile.getVelocity().len2() > range * range) {
+			return true;
+		}
+		return cullCamera != null && !cullBounds.overlaps(projectile.getBounds());
+	}
+	
+	/**
+	 * @return the amount of projectiles fired between the last two projectile ticks
+	 */
+	public int getSpawnedLastTick() {
+		return spawnedLastTick;
+	}
+	
+	/**
+	 * @return the amount of projectiles retired during the last projectile tick
+	 */
+	public int getRetiredLastTick() {
+		return retiredLastTick;
+	}
+	
+	/**
+	 * @return the amount of live projectiles, both {@link Projectile} objects and {@link PackedProjectiles}
+	 */
+	public int getActiveProjectileCount() {
+		return projectiles.size + packedProjectiles.size();
+	}
+	
+	/**
+	 * Creates {@link Projectile} objects up front until the {@link ProjectilesPool} holds given amount
+	 * of free ones, so the first burst of fire does not allocate. Call when loading a level.
+	 * @param amount the amount of free projectiles the pool should hold
+	 */
+	public void prewarm(int amount) {
+		projectilesPool.prewarm(amount);
+	}
+	
+	/**
+	 * Makes this weapon obtain its projectiles from the {@link ProjectilesPool} shared by all
+	 * weapons firing given kind of projectile, see {@link ProjectilesPool#getShared(String)}.
+	 * Live {@link Projectile} objects are retired, see {@link #setProjectilesPool(ProjectilesPool)}
+	 * @param archetype the name of the kind of projectile, e.g "rifle"
+	 */
+	public void useSharedPool(String archetype) {
+		setProjectilesPool(ProjectilesPool.getShared(archetype));
+	}
+	
+	/**
+	 * Set the {@link ProjectilesPool} to obtain projectiles from. Live {@link Projectile} objects 
+	 * are retired and freed to the pool they were obtained from first, so the usage stats of both pools stay right.
+	 * Best called when loading a level, before firing.
+	 * @param projectilesPool
+	 */
+	public void setProjectilesPool(ProjectilesPool projectilesPool) {
+		if(projectilesPool == this.projectilesPool) {
+			return;
+		}
+		this.projectilesPool.freeAll(projectiles);
+		projectiles.clear();
+		this.projectilesPool = projectilesPool;
+	}
+	
+	/**
+	 * @return the {@link ProjectilesPool} projectiles are obtained from
+	 */
+	public ProjectilesPool getProjectilesPool() {
+		return projectilesPool;
+	}
+	
+	/**
+	 * @return the {@link PackedProjectiles} owned by this weapon
+	 */
+	public PackedProjectiles getPackedProjectiles() {
+		return packedProjectiles;
+	}
+	
+	/**
+	 * Set the {@link CollisionHandler} for this weapon, also used by its {@link PackedProjectiles}
+	 * @param collisionHandler
+	 */
+	@Override
+	public void setCollisionHandler(CollisionHandler collisionHandler) {
+		super.setCollisionHandler(collisionHandler);
+		packedProjectiles.setCollisionHandler(collisionHandler);
 	}
 	
 	/**
@@ -125,11 +306,14 @@ public abstract class Weapon extends BasicGameObject {
 	 */
 	public void transferValuesFrom(Projectile projectileToAddTo, Projectile populatedProjectile) {
 		projectileToAddTo.setPosition(populatedProjectile.getPosition());
+		// A pooled projectile must not interpolate from where its previous life ended
+		projectileToAddTo.storePreviousPosition();
 		projectileToAddTo.setSpeed(populatedProjectile.getSpeed());
 		projectileToAddTo.setVelocity(populatedProjectile.getVelocity());
 		projectileToAddTo.setBounds(populatedProjectile.getBounds());
 		projectileToAddTo.setCollisionHandler(populatedProjectile.getCollisionHandler());
 		projectileToAddTo.setGameObjectTexture(populatedProjectile.getGameObjectTexture());
+		projectileToAddTo.setSweptCollision(populatedProjectile.isSweptCollision());
 	}
 	
 	/**
@@ -138,7 +322,7 @@ public abstract class Weapon extends BasicGameObject {
 	 */
 	public void populateProjectilesArray(int amount) {
 		for(int i = 0; i < amount; i++) {
-			projectiles.add(projectilesPool.obtain());
+			addProjectile(projectilesPool.obtain());
 		}
 	}
 	
@@ -147,7 +331,7 @@ public abstract class Weapon extends BasicGameObject {
 	 */
 	public void fillProjectilesArray() {
 		for(int i = 0; i < maxCapacity; i++) {
-			projectiles.add(projectilesPool.obtain());
+			addProjectile(projectilesPool.obtain());
 		}
 	}
 	
@@ -156,13 +340,14 @@ public abstract class Weapon extends BasicGameObject {
 		for(Projectile projectile : projectiles) {
 			projectile.render(batch);
 		}
+		packedProjectiles.render(batch);
 	}
 	
 	/**
-	 * @return wheather or not the size of the projectiles array is bigger than or equal to given max capacity
+	 * @return wheather or not the amount of live projectiles is bigger than or equal to given max capacity
 	 */
 	public boolean isMaxedOut() {
-		return projectiles.size >= maxCapacity;
+		return getActiveProjectileCount() >= maxCapacity;
 	}
 	
 	/**
@@ -296,20 +481,57 @@ public abstract class Weapon extends BasicGameObject {
 	}
 	
 	/**
-	 * Set the distance in pixels for how far the projectiles can go
+	 * Set the distance in pixels for how far the projectiles can go, 0 for no limit
 	 * @param range
 	 */
 	public void setRange(float range) {
 		this.range = range;
+		packedProjectiles.setMaxDistance(range);
 	}
 
 	/**
-	 * @return the distance in pixels for how far the projectiles can go
+	 * @return the distance in pixels for how far the projectiles can go, 0 for no limit
 	 */
 	public float getRange() {
 		return range;
 	}
 	
+	/**
+	 * Set the time in seconds the projectiles can fly before they are retired, 0 for no limit
+	 * @param maxLifetime
+	 */
+	public void setMaxLifetime(float maxLifetime) {
+		this.maxLifetime = maxLifetime;
+		packedProjectiles.setMaxLifetime(maxLifetime);
+	}
+	
+	/**
+	 * @return the time in seconds the projectiles can fly before they are retired, 0 for no limit
+	 */
+	public float getMaxLifetime() {
+		return maxLifetime;
+	}
+	
+	/**
+	 * Retire projectiles that leave the view of given camera, checked every projectile tick
+	 * @param cullCamera the camera whose view the projectiles must stay in, null to not retire projectiles outside the view
+	 * @param cullMargin the margin in pixels added around the view on every side
+	 */
+	public void setCullCamera(GameCamera cullCamera, float cullMargin) {
+		this.cullCamera = cullCamera;
+		this.cullMargin = cullMargin;
+		if(cullCamera == null) {
+			packedProjectiles.clearCullBounds();
+		}
+	}
+	
+	/**
+	 * @return the camera whose view the projectiles must stay in, may be null
+	 */
+	public GameCamera getCullCamera() {
+		return cullCamera;
+	}
+	
 	/**
 	 * Set the amount of damage that this weapon will cause
 	 * @param damage
@@ -339,5 +561,6 @@ public abstract class Weapon extends BasicGameObject {
 		}
 		projectilesPool.freeAll(projectiles);
 		projectiles.clear();
+		packedProjectiles.clear();
 	}
 }
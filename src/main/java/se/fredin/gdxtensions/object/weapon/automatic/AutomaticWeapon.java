@@ -72,13 +72,7 @@ public abstract class AutomaticWeapon extends Weapon {
 		} 
 		timer += deltaTime;
 		
-		for(Projectile projectile : projectiles) {
-			projectile.tick(deltaTime);
-			if(projectile.isCollidedWith() || isMaxedOut()) {
-				projectiles.removeValue(projectile, true);
-				projectilesPool.free(projectile);
-			}
-		}
+		tickProjectiles(deltaTime);
 	}
 
 }
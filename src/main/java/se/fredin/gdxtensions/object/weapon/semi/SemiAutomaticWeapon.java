@@ -87,13 +87,7 @@ public abstract class SemiAutomaticWeapon extends Weapon {
 		} 
 		timer += deltaTime;
 		
-		for(Projectile projectile : projectiles) {
-			projectile.tick(deltaTime);
-			if(projectile.isCollidedWith() || isMaxedOut()) {
-				projectiles.removeValue(projectile, true);
-				projectilesPool.free(projectile);
-			}
-		}
+		tickProjectiles(deltaTime);
 	}
 	
 	/**
@@ -0,0 +1,96 @@
+package se.fredin.gdxtensions.replay;
+
+import se.fredin.gdxtensions.input.BaseInput;
+import se.fredin.gdxtensions.level.LevelBase;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Plays a {@link Replay} back by feeding the recorded input to a freshly loaded level and ticking it at the recorded step,
+ * without rendering and as fast as possible. The level must start out the same way as when it was recorded.
+ * Useful for reproducing bugs, as a regression test comparing the end state of the level, and as a repeatable load for profiling.
+ * The time of every tick is measured, see {@link #getMaxTickNanos()} and {@link #getTotalTickNanos()}.
+ * @author Johan Fredin
+ *
+ */
+public class HeadlessReplayer {
+	
+	private LevelBase level;
+	private BaseInput input;
+	private long totalTickNanos;
+	private long maxTickNanos;
+	private int slowestStep = -1;
+	
+	/**
+	 * Construct a new {@link HeadlessReplayer}
+	 * @param level the level to tick
+	 * @param input the input the level reads from
+	 */
+	public HeadlessReplayer(LevelBase level, BaseInput input) {
+		this.level = level;
+		this.input = input;
+	}
+	
+	/**
+	 * Plays the whole replay
+	 * @param replay the replay to play
+	 */
+	public void play(Replay replay) {
+		play(replay, replay.getStepCount());
+	}
+	
+	/**
+	 * Seeds {@link MathUtils#random} with the seed of the replay and plays the first given amount of steps
+	 * @param replay the replay to play
+	 * @param steps the amount of steps to play, for example to stop right before a bug happens
+	 */
+	public void play(Replay replay, int steps) {
+		totalTickNanos = maxTickNanos = 0L;
+		slowestStep = -1;
+		MathUtils.random.setSeed(replay.getSeed());
+		float stepTime = replay.getStepTime();
+		steps = Math.min(steps, replay.getStepCount());
+		for(int i = 0; i < steps; i++) {
+			input.setState(replay.getInputState(i));
+			long start = TimeUtils.nanoTime();
+			level.tick(stepTime);
+			long tickNanos = TimeUtils.nanoTime() - start;
+			totalTickNanos += tickNanos;
+			if(tickNanos > maxTickNanos) {
+				maxTickNanos = tickNanos;
+				slowestStep = i;
+			}
+		}
+	}
+	
+	/**
+	 * @return the time spent ticking during the last play in nanoseconds
+	 */
+	public long getTotalTickNanos() {
+		return totalTickNanos;
+	}
+	
+	/**
+	 * @return the time of the slowest tick during the last play in nanoseconds
+	 */
+	public long getMaxTickNanos() {
+		return maxTickNanos;
+	}
+	
+	/**
+	 * @return the step of the slowest tick during the last play, -1 if nothing was played
+	 */
+	public int getSlowestStep() {
+		return slowestStep;
+	}
+	
+	@Override
+	public String toString() {
+		return "HeadlessReplayer\n" +
+			   "total tick ms=" + totalTickNanos / 1000000f + "\n" +
+			   "max tick ms=" + maxTickNanos / 1000000f + "\n" +
+			   "slowest step=" + slowestStep + "\n";
+	}
+
+}
@@ -0,0 +1,133 @@
+package se.fredin.gdxtensions.replay;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.StreamUtils;
+
+/**
+ * A recorded play session, everything needed to run the simulation again exactly like it ran the first time: 
+ * the seed of the random generator, the fixed step time and the {@link se.fredin.gdxtensions.input.BaseInput}
+ * state of every step. Recorded with a {@link ReplayRecorder} and played back with a {@link HeadlessReplayer}.
+ * @author Johan Fredin
+ *
+ */
+public class Replay {
+	
+	private static final int MAGIC = 0x52504C59;
+	private static final int VERSION = 1;
+	
+	private long seed;
+	private float stepTime;
+	private IntArray inputStates;
+	
+	/**
+	 * Construct a new empty {@link Replay}
+	 * @param seed the seed of the random generator
+	 * @param stepTime the time of one simulation step in seconds
+	 */
+	public Replay(long seed, float stepTime) {
+		this.seed = seed;
+		this.stepTime = stepTime;
+		this.inputStates = new IntArray();
+	}
+	
+	/**
+	 * Loads a replay saved with {@link #save(FileHandle)}
+	 * @param file the file to load
+	 * @return the loaded replay
+	 */
+	public static Replay load(FileHandle file) {
+		DataInputStream input = null;
+		try {
+			input = new DataInputStream(file.read(8192));
+			if(input.readInt() != MAGIC || input.readInt() != VERSION) {
+				throw new GdxRuntimeException(file + " is not a replay file of version " + VERSION);
+			}
+			Replay replay = new Replay(input.readLong(), input.readFloat());
+			int steps = input.readInt();
+			replay.inputStates.ensureCapacity(steps);
+			for(int i = 0; i < steps; i++) {
+				replay.inputStates.add(input.readInt());
+			}
+			return replay;
+		} catch(IOException ex) {
+			throw new GdxRuntimeException("Could not load replay " + file, ex);
+		} finally {
+			StreamUtils.closeQuietly(input);
+		}
+	}
+	
+	/**
+	 * Saves the replay to a file
+	 * @param file the file to save to, overwritten if it exists
+	 */
+	public void save(FileHandle file) {
+		DataOutputStream output = null;
+		try {
+			output = new DataOutputStream(file.write(false, 8192));
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeLong(seed);
+			output.writeFloat(stepTime);
+			output.writeInt(inputStates.size);
+			for(int i = 0; i < inputStates.size; i++) {
+				output.writeInt(inputStates.get(i));
+			}
+		} catch(IOException ex) {
+			throw new GdxRuntimeException("Could not save replay " + file, ex);
+		} finally {
+			StreamUtils.closeQuietly(output);
+		}
+	}
+	
+	/**
+	 * Adds the input state of one step
+	 * @param inputState the state as returned by {@link se.fredin.gdxtensions.input.BaseInput#getState()}
+	 */
+	public void addStep(int inputState) {
+		inputStates.add(inputState);
+	}
+	
+	/**
+	 * @param step 0 to {@link #getStepCount()} - 1
+	 * @return the input state of given step
+	 */
+	public int getInputState(int step) {
+		return inputStates.get(step);
+	}
+	
+	/**
+	 * @return the amount of recorded steps
+	 */
+	public int getStepCount() {
+		return inputStates.size;
+	}
+	
+	/**
+	 * @return the seed of the random generator
+	 */
+	public long getSeed() {
+		return seed;
+	}
+	
+	/**
+	 * @return the time of one simulation step in seconds
+	 */
+	public float getStepTime() {
+		return stepTime;
+	}
+	
+	@Override
+	public String toString() {
+		return "Replay\n" +
+			   "seed=" + seed + "\n" +
+			   "step time=" + stepTime + "\n" +
+			   "steps=" + inputStates.size + "\n";
+	}
+
+}
@@ -0,0 +1,120 @@
+package se.fredin.gdxtensions.replay;
+
+import se.fredin.gdxtensions.input.BaseInput;
+import se.fredin.gdxtensions.level.FixedTimestepDriver;
+import se.fredin.gdxtensions.level.LevelBase;
+import se.fredin.gdxtensions.utils.ScreenType;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Records a play session into a {@link Replay}. Wraps the level being played and stores the {@link BaseInput} state
+ * right before every {@link LevelBase#tick(float)}, so it should be driven at a fixed step, typically by a 
+ * {@link FixedTimestepDriver}:
+ * <pre>
+ * recorder = new ReplayRecorder(level, level.getBaseInput());
+ * driver = new FixedTimestepDriver(recorder);
+ * recorder.start(driver.getStepTime());
+ * </pre>
+ * Starting a recording seeds {@link MathUtils#random}, so the level must use it for everything random
+ * for the replay to turn out the same.
+ * @author Johan Fredin
+ *
+ */
+public class ReplayRecorder implements LevelBase {
+	
+	private LevelBase level;
+	private BaseInput input;
+	private Replay replay;
+	
+	/**
+	 * Construct a new {@link ReplayRecorder}
+	 * @param level the level to record
+	 * @param input the input the level reads from
+	 */
+	public ReplayRecorder(LevelBase level, BaseInput input) {
+		this.level = level;
+		this.input = input;
+	}
+	
+	/**
+	 * Starts a new recording with a seed based on the current time
+	 * @param stepTime the fixed time of one step in seconds
+	 * @return the replay being recorded
+	 */
+	public Replay start(float stepTime) {
+		return start(TimeUtils.nanoTime(), stepTime);
+	}
+	
+	/**
+	 * Starts a new recording and seeds {@link MathUtils#random}
+	 * @param seed the seed of the random generator
+	 * @param stepTime the fixed time of one step in seconds
+	 * @return the replay being recorded
+	 */
+	public Replay start(long seed, float stepTime) {
+		this.replay = new Replay(seed, stepTime);
+		MathUtils.random.setSeed(seed);
+		return replay;
+	}
+	
+	/**
+	 * Stops recording
+	 * @return the recorded replay or null if nothing was recorded
+	 */
+	public Replay stop() {
+		Replay recorded = replay;
+		this.replay = null;
+		return recorded;
+	}
+	
+	/**
+	 * @return whether or not a recording is running
+	 */
+	public boolean isRecording() {
+		return replay != null;
+	}
+	
+	@Override
+	public void tick(float deltatime) {
+		if(replay != null) {
+			replay.addStep(input.getState());
+		}
+		level.tick(deltatime);
+	}
+	
+	@Override
+	public void render(SpriteBatch batch) {
+		level.render(batch);
+	}
+	
+	@Override
+	public void switchLevel() {
+		level.switchLevel();
+	}
+	
+	@Override
+	public void restart(boolean allowedToShowAdd) {
+		level.restart(allowedToShowAdd);
+	}
+	
+	@Override
+	public void end(ScreenType screenToGoTo, boolean allowedToShowAdd) {
+		level.end(screenToGoTo, allowedToShowAdd);
+	}
+	
+	@Override
+	public void dispose() {
+		level.dispose();
+	}
+	
+	/**
+	 * @return the level recorded
+	 */
+	public LevelBase getLevel() {
+		return level;
+	}
+
+}
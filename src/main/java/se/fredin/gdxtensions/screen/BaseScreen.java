@@ -1,6 +1,8 @@
 package se.fredin.gdxtensions.screen;
 
 import se.fredin.gdxtensions.assetmanagement.Assets;
+import se.fredin.gdxtensions.level.FixedTimestepDriver;
+import se.fredin.gdxtensions.level.LevelBase;
 import se.fredin.gdxtensions.utils.GameCamera;
 
 import com.badlogic.gdx.Game;
@@ -15,6 +17,9 @@ import com.badlogic.gdx.utils.Scaling;
  * BaseScreen holds general objects that each Screen object in libGDX usually requires,
  * a camera, spritebatch and a game object. It also contains static fields for default 
  * viewport width and height. 
+ * <br>
+ * A screen running a level can drive it with a fixed simulation step through {@link #setFixedTimestep(LevelBase)}
+ * and call {@link #updateAndRenderLevel(float)} from its render method.
  * @author Johan Fredin
  *
  */
@@ -28,6 +33,7 @@ public abstract class BaseScreen implements Screen, Disposable {
 	protected GameCamera camera;
 	protected SpriteBatch batch;
 	protected Game game;
+	protected FixedTimestepDriver timestepDriver;
 	
 	/**
 	 * Instantiates the base screen and the objects 
@@ -57,6 +63,44 @@ public abstract class BaseScreen implements Screen, Disposable {
 		return this.batch;
 	}
 	
+	/**
+	 * Drives given level with a {@link FixedTimestepDriver} stepping {@link FixedTimestepDriver#DEFAULT_STEPS_PER_SECOND} times per second
+	 * @param level the level to drive
+	 * @return the driver, add the objects to interpolate to it with {@link FixedTimestepDriver#addInterpolated(com.badlogic.gdx.utils.Array)}
+	 */
+	public FixedTimestepDriver setFixedTimestep(LevelBase level) {
+		return setFixedTimestep(level, FixedTimestepDriver.DEFAULT_STEPS_PER_SECOND, FixedTimestepDriver.DEFAULT_MAX_STEPS_PER_FRAME);
+	}
+	
+	/**
+	 * Drives given level with a {@link FixedTimestepDriver}
+	 * @param level the level to drive
+	 * @param stepsPerSecond how many simulation steps to take per second
+	 * @param maxStepsPerFrame the maximum amount of steps to catch up with in one frame
+	 * @return the driver, add the objects to interpolate to it with {@link FixedTimestepDriver#addInterpolated(com.badlogic.gdx.utils.Array)}
+	 */
+	public FixedTimestepDriver setFixedTimestep(LevelBase level, int stepsPerSecond, int maxStepsPerFrame) {
+		this.timestepDriver = new FixedTimestepDriver(level, stepsPerSecond, maxStepsPerFrame);
+		return timestepDriver;
+	}
+	
+	/**
+	 * @return the driver set with {@link #setFixedTimestep(LevelBase)} or null if the level is not driven with a fixed step
+	 */
+	public FixedTimestepDriver getFixedTimestepDriver() {
+		return timestepDriver;
+	}
+	
+	/**
+	 * Steps the level set with {@link #setFixedTimestep(LevelBase)} by the time of one frame and renders it 
+	 * with its interpolated objects at {@link FixedTimestepDriver#getAlpha()}. Call from {@link #render(float)}.
+	 * @param delta the time interval since last rendering occurred
+	 */
+	protected void updateAndRenderLevel(float delta) {
+		timestepDriver.update(delta);
+		timestepDriver.render(batch);
+	}
+	
 	@Override
 	public void resize(int width, int height) {
         Vector2 size = Scaling.fillY.apply(width, height, width, viewportHeight);
@@ -88,6 +132,10 @@ public abstract class BaseScreen implements Screen, Disposable {
 	public void resume() {
 		Gdx.app.log(this.getClass().getSimpleName(), "resume called");
 		Assets.getInstance().finishLoading();
+		if(timestepDriver != null) {
+			// Do not try to catch up with the time spent paused
+			timestepDriver.reset();
+		}
 	}
 
 }
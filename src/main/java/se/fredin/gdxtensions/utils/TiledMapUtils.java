@@ -1,5 +1,9 @@
 package se.fredin.gdxtensions.utils;
 
+import java.util.Comparator;
+
+import se.fredin.gdxtensions.utils.logging.LogUtils;
+
 import com.badlogic.gdx.maps.MapObject;
 import com.badlogic.gdx.maps.objects.RectangleMapObject;
 import com.badlogic.gdx.maps.tiled.TiledMap;
@@ -17,6 +21,30 @@ import com.badlogic.gdx.utils.Array;
  */
 public class TiledMapUtils {
 	
+	/** Orders rectangles row by row so horizontal neighbours end up next to each other */
+	private static final Comparator<Rectangle> ROW_ORDER = new Comparator<Rectangle>() {
+		@Override
+		public int compare(Rectangle r1, Rectangle r2) {
+			int result = Float.compare(r1.y, r2.y);
+			if(result == 0) {
+				result = Float.compare(r1.height, r2.height);
+			}
+			return result != 0 ? result : Float.compare(r1.x, r2.x);
+		}
+	};
+	
+	/** Orders rectangles column by column so vertical neighbours end up next to each other */
+	private static final Comparator<Rectangle> COLUMN_ORDER = new Comparator<Rectangle>() {
+		@Override
+		public int compare(Rectangle r1, Rectangle r2) {
+			int result = Float.compare(r1.x, r2.x);
+			if(result == 0) {
+				result = Float.compare(r1.width, r2.width);
+			}
+			return result != 0 ? result : Float.compare(r1.y, r2.y);
+		}
+	};
+	
 	private TiledMap map;
 	
 	/**
@@ -115,6 +143,58 @@ public class TiledMapUtils {
 		return rectangles;
 	}
 	
+	/**
+	 * Same as {@link #getRectangularMapObjects(String)} but with touching rectangles merged
+	 * into larger ones using {@link #mergeRectangles(Array)}. Useful for collision layers that are
+	 * painted tile by tile. The amount of rectangles before and after merging is logged.
+	 * @param objectLayerName the name of the object layer
+	 * @return a new {@link Array} containing the merged rectangles
+	 */
+	public Array<Rectangle> getMergedRectangularMapObjects(String objectLayerName) {
+		Array<Rectangle> rectangles = getRectangularMapObjects(objectLayerName);
+		Array<Rectangle> merged = mergeRectangles(rectangles);
+		LogUtils.log("Merged " + objectLayerName + " rectangles", rectangles.size + " -> " + merged.size);
+		return merged;
+	}
+	
+	/**
+	 * Greedily merges touching rectangles into larger ones covering exactly the same area.
+	 * First rectangles on the same row with the same y and height are joined into horizontal spans,
+	 * then spans in the same column with the same x and width are joined vertically.
+	 * The passed in rectangles are not modified.
+	 * @param rectangles the rectangles to merge
+	 * @return a new {@link Array} containing new merged rectangles
+	 */
+	public static Array<Rectangle> mergeRectangles(Array<Rectangle> rectangles) {
+		Array<Rectangle> copies = new Array<>(rectangles.size);
+		for(Rectangle rectangle : rectangles) {
+			copies.add(new Rectangle(rectangle));
+		}
+		
+		copies.sort(ROW_ORDER);
+		Array<Rectangle> rows = new Array<>();
+		for(Rectangle rectangle : copies) {
+			Rectangle last = rows.size > 0 ? rows.peek() : null;
+			if(last != null && last.y == rectangle.y && last.height == rectangle.height && rectangle.x <= last.x + last.width) {
+				last.width = Math.max(last.width, rectangle.x + rectangle.width - last.x);
+			} else {
+				rows.add(rectangle);
+			}
+		}
+		
+		rows.sort(COLUMN_ORDER);
+		Array<Rectangle> merged = new Array<>();
+		for(Rectangle rectangle : rows) {
+			Rectangle last = merged.size > 0 ? merged.peek() : null;
+			if(last != null && last.x == rectangle.x && last.width == rectangle.width && rectangle.y <= last.y + last.height) {
+				last.height = Math.max(last.height, rectangle.y + rectangle.height - last.y);
+			} else {
+				merged.add(rectangle);
+			}
+		}
+		return merged;
+	}
+	
 	/**
 	 * Lets us retrieve a map object.
 	 * @param objectLayerName the object layer we want to get the map object from
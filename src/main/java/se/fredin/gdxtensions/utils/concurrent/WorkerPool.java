@@ -0,0 +1,136 @@
+package se.fredin.gdxtensions.utils.concurrent;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Small wrapper around a work stealing {@link ForkJoinPool} for splitting a loop over
+ * many independent objects (e.g movers or entities) across several threads.
+ * The calling thread takes part in the work by running the first range itself while the rest
+ * is forked to the pool, and {@link #forEach(int, RangeTask)} only 
+ * returns when every index has been processed, so everything written by the workers is 
+ * visible to the caller afterwards.
+ * @author Johan Fredin
+ *
+ */
+public class WorkerPool implements Disposable {
+	
+	/** Default smallest amount of indices handed to one task. Value={@value #DEFAULT_GRAIN_SIZE} */
+	public static final int DEFAULT_GRAIN_SIZE = 64;
+	
+	private ForkJoinPool pool;
+	private int grainSize = DEFAULT_GRAIN_SIZE;
+	
+	/**
+	 * Construct a new {@link WorkerPool} using one thread per available processor
+	 */
+	public WorkerPool() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Construct a new {@link WorkerPool}
+	 * @param threadCount the amount of threads to use
+	 */
+	public WorkerPool(int threadCount) {
+		this.pool = new ForkJoinPool(Math.max(1, threadCount));
+	}
+	
+	/**
+	 * Runs given task over the indices 0 to count - 1, split into ranges of at least {@link #getGrainSize()} 
+	 * indices that are processed in parallel. The first range is run on the calling thread, which then
+	 * blocks until all other ranges are done.
+	 * @param count the amount of indices
+	 * @param task the task to run for each range
+	 */
+	public void forEach(int count, RangeTask task) {
+		if(count <= grainSize || pool.getParallelism() == 1) {
+			task.run(0, count);
+		} else {
+			// The caller takes its share of the threads, the rest is split up by the pool
+			int first = Math.max(grainSize, count / (pool.getParallelism() + 1));
+			ForkJoinTask<Void> rest = pool.submit(new RangeAction(task, first, count, grainSize));
+			try {
+				task.run(0, first);
+			} finally {
+				rest.join();
+			}
+		}
+	}
+	
+	/**
+	 * @return the amount of threads used
+	 */
+	public int getThreadCount() {
+		return pool.getParallelism();
+	}
+	
+	/**
+	 * Set the smallest amount of indices handed to one task, smaller ranges are not split further.
+	 * @param grainSize
+	 */
+	public void setGrainSize(int grainSize) {
+		this.grainSize = Math.max(1, grainSize);
+	}
+	
+	/**
+	 * @return the smallest amount of indices handed to one task
+	 */
+	public int getGrainSize() {
+		return grainSize;
+	}
+	
+	@Override
+	public void dispose() {
+		pool.shutdown();
+	}
+	
+	/**
+	 * Work done by a {@link WorkerPool} on a range of indices
+	 * @author Johan Fredin
+	 *
+	 */
+	public interface RangeTask {
+		
+		/**
+		 * Process the indices from (inclusive) to (exclusive). Called from several threads at once
+		 * so it must only write to data belonging to the indices in its own range.
+		 * @param from the first index
+		 * @param to the index after the last one
+		 */
+		void run(int from, int to);
+		
+	}
+	
+	/**
+	 * Splits a range in halves until it is small enough to run
+	 */
+	@SuppressWarnings("serial")
+	private static class RangeAction extends RecursiveAction {
+		
+		private final RangeTask task;
+		private final int from, to, grainSize;
+		
+		RangeAction(RangeTask task, int from, int to, int grainSize) {
+			this.task = task;
+			this.from = from;
+			this.to = to;
+			this.grainSize = grainSize;
+		}
+		
+		@Override
+		protected void compute() {
+			if(to - from <= grainSize) {
+				task.run(from, to);
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new RangeAction(task, from, middle, grainSize), new RangeAction(task, middle, to, grainSize));
+			}
+		}
+		
+	}
+
+}
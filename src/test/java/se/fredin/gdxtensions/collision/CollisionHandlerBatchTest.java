@@ -0,0 +1,91 @@
+package se.fredin.gdxtensions.collision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import se.fredin.gdxtensions.collision.CollisionHandler.Filter;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Checks that the batch query of {@link CollisionHandler} gives the same answers as running the queries one by one
+ * @author Johan Fredin
+ *
+ */
+public class CollisionHandlerBatchTest {
+
+	private static final int QUERIES = 2000;
+
+	@Test
+	public void batchMatchesSingleQueries() {
+		Random random = new Random(11);
+		CollisionHandler collisionHandler = new CollisionHandler();
+		collisionHandler.setHardBlocks(randomBlocks(random, 300));
+		collisionHandler.setSoftBlocks(randomBlocks(random, 300));
+		TileCollisionLayer layer = new TileCollisionLayer(64, 64, 32f, 32f);
+		for(int i = 0; i < 200; i++) {
+			layer.setBlock(random.nextInt(64), random.nextInt(64), random.nextBoolean() ? Filter.HARD : Filter.SOFT, true);
+		}
+		collisionHandler.setTileCollisionLayer(layer);
+
+		Rectangle[] bounds = new Rectangle[QUERIES];
+		byte[] filters = new byte[QUERIES];
+		for(int i = 0; i < QUERIES; i++) {
+			bounds[i] = new Rectangle(random.nextFloat() * 2200f - 100f, random.nextFloat() * 2200f - 100f,
+									  1f + random.nextFloat() * 80f, 1f + random.nextFloat() * 80f);
+			filters[i] = (byte) (1 + random.nextInt(3));
+		}
+		Rectangle[] results = new Rectangle[QUERIES];
+		int hits = collisionHandler.getBoundsAt(bounds, filters, QUERIES, results);
+
+		int expectedHits = 0;
+		for(int i = 0; i < QUERIES; i++) {
+			Rectangle expected = collisionHandler.getBoundsAt(bounds[i], filters[i], null);
+			if(expected == null) {
+				assertSame("query " + i, null, results[i]);
+				continue;
+			}
+			expectedHits++;
+			if(collisionHandler.getHardBlocks().contains(expected, true) || collisionHandler.getSoftBlocks().contains(expected, true)) {
+				assertSame("query " + i, expected, results[i]);
+			} else {
+				// Tile hits are copied into rectangles owned by the batch
+				assertEquals("query " + i, expected, results[i]);
+			}
+		}
+		assertEquals(expectedHits, hits);
+		assertTrue(hits > QUERIES / 10);
+	}
+
+	@Test
+	public void batchClearsOldResults() {
+		CollisionHandler collisionHandler = new CollisionHandler();
+		Array<Rectangle> hardBlocks = new Array<Rectangle>();
+		hardBlocks.add(new Rectangle(0f, 0f, 16f, 16f));
+		collisionHandler.setHardBlocks(hardBlocks);
+		collisionHandler.setSoftBlocks(new Array<Rectangle>());
+
+		Rectangle[] bounds = { new Rectangle(100f, 100f, 4f, 4f), new Rectangle(4f, 4f, 4f, 4f) };
+		byte[] filters = { Filter.HARD, Filter.SOFT };
+		Rectangle[] results = { new Rectangle(), new Rectangle() };
+		assertEquals(0, collisionHandler.getBoundsAt(bounds, filters, 2, results));
+		assertSame(null, results[0]);
+		assertSame(null, results[1]);
+	}
+
+	private static Array<Rectangle> randomBlocks(Random random, int count) {
+		Array<Rectangle> blocks = new Array<Rectangle>();
+		for(int i = 0; i < count; i++) {
+			blocks.add(new Rectangle(random.nextFloat() * 2000f, random.nextFloat() * 2000f,
+									 4f + random.nextFloat() * 120f, 4f + random.nextFloat() * 120f));
+		}
+		return blocks;
+	}
+
+}
@@ -0,0 +1,153 @@
+package se.fredin.gdxtensions.collision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import se.fredin.gdxtensions.collision.CollisionHandler.Filter;
+import se.fredin.gdxtensions.object.RichGameObject;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Checks that a {@link CollisionQueryCache} answers exactly like the uncached queries while nearly
+ * the same queries hit the cache.
+ * @author Johan Fredin
+ *
+ */
+public class CollisionQueryCacheTest {
+
+	@Test
+	public void cachedAnswersMatchUncached() {
+		Random random = new Random(3);
+		Array<Rectangle> hardBlocks = randomBlocks(random, 300);
+		Array<Rectangle> softBlocks = randomBlocks(random, 300);
+		CollisionHandler uncached = handler(hardBlocks, softBlocks);
+		CollisionHandler cached = handler(hardBlocks, softBlocks);
+		CollisionQueryCache cache = new CollisionQueryCache(256);
+		cached.setQueryCache(cache);
+
+		Rectangle query = new Rectangle();
+		for(int i = 0; i < 2000; i++) {
+			query.set(random.nextFloat() * 2000f, random.nextFloat() * 2000f, 4f + random.nextFloat() * 40f, 4f + random.nextFloat() * 40f);
+			// The same object probing a few pixels around its position
+			for(int j = 0; j < 4; j++) {
+				byte filter = (byte) (1 + random.nextInt(3));
+				assertSame("query " + query, uncached.getBoundsAt(query, filter, null), cached.getBoundsAt(query, filter, null));
+				query.x += random.nextFloat() * 4f - 2f;
+				query.y += random.nextFloat() * 4f - 2f;
+			}
+		}
+		assertTrue(cache.getHits() > 0);
+		assertTrue(cache.getMisses() > 0);
+	}
+
+	@Test
+	public void smallMoveHitsAndStillFindsTheBlock() {
+		Array<Rectangle> hardBlocks = new Array<Rectangle>();
+		hardBlocks.add(new Rectangle(14f, 0f, 16f, 16f));
+		CollisionHandler collisionHandler = handler(hardBlocks, new Array<Rectangle>());
+		CollisionQueryCache cache = new CollisionQueryCache(64, 16f);
+		collisionHandler.setQueryCache(cache);
+
+		Rectangle bounds = new Rectangle(2f, 0f, 8f, 8f);
+		assertNull(collisionHandler.getBoundsAt(bounds, Filter.HARD, null));
+		assertEquals(1, cache.getMisses());
+		// Still in the same quantized region, but now overlapping the block
+		bounds.x = 7f;
+		assertSame(hardBlocks.first(), collisionHandler.getBoundsAt(bounds, Filter.HARD, null));
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void changedBlocksInvalidateTheCache() {
+		CollisionHandler collisionHandler = handler(new Array<Rectangle>(), new Array<Rectangle>());
+		collisionHandler.setQueryCache(new CollisionQueryCache());
+		Rectangle bounds = new Rectangle(0f, 0f, 8f, 8f);
+		assertNull(collisionHandler.getBoundsAt(bounds, Filter.HARD, null));
+
+		Array<Rectangle> hardBlocks = new Array<Rectangle>();
+		hardBlocks.add(new Rectangle(4f, 4f, 8f, 8f));
+		collisionHandler.setHardBlocks(hardBlocks);
+		assertSame(hardBlocks.first(), collisionHandler.getBoundsAt(bounds, Filter.HARD, null));
+	}
+
+	@Test
+	public void tryMoveHelpersHitTheCache() {
+		Array<Rectangle> hardBlocks = new Array<Rectangle>();
+		for(int x = 0; x < 40; x++) {
+			hardBlocks.add(new Rectangle(x * 16f, 0f, 16f, 16f));
+		}
+		hardBlocks.add(new Rectangle(39 * 16f, 16f, 16f, 64f));
+		Array<Rectangle> softBlocks = new Array<Rectangle>();
+		softBlocks.add(new Rectangle(96f, 28f, 64f, 4f));
+		CollisionHandler cachedHandler = handler(hardBlocks, softBlocks);
+		CollisionQueryCache cache = new CollisionQueryCache();
+		cachedHandler.setQueryCache(cache);
+
+		Mover cached = new Mover(new Vector2(32f, 64f), cachedHandler);
+		Mover uncached = new Mover(new Vector2(32f, 64f), handler(hardBlocks, softBlocks));
+		Vector2 newPosition = new Vector2();
+		for(int i = 0; i < 600; i++) {
+			newPosition.set(cached.getPosition().x + 1f, cached.getPosition().y - 2f);
+			cached.move(newPosition);
+			newPosition.set(uncached.getPosition().x + 1f, uncached.getPosition().y - 2f);
+			uncached.move(newPosition);
+			assertEquals("step " + i, uncached.getPosition(), cached.getPosition());
+		}
+		// The horizontal, downward and head probes of one object a pixel apart share their quantized regions
+		assertTrue("hit rate " + cache.getHitRate(), cache.getHitRate() > 0.5f);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nonPositiveQuantumIsRejected() {
+		new CollisionQueryCache().setQuantum(0f);
+	}
+
+	private static CollisionHandler handler(Array<Rectangle> hardBlocks, Array<Rectangle> softBlocks) {
+		CollisionHandler collisionHandler = new CollisionHandler();
+		collisionHandler.setHardBlocks(hardBlocks);
+		collisionHandler.setSoftBlocks(softBlocks);
+		return collisionHandler;
+	}
+
+	private static Array<Rectangle> randomBlocks(Random random, int count) {
+		Array<Rectangle> blocks = new Array<Rectangle>();
+		for(int i = 0; i < count; i++) {
+			blocks.add(new Rectangle(random.nextFloat() * 2000f, random.nextFloat() * 2000f,
+									 4f + random.nextFloat() * 100f, 4f + random.nextFloat() * 100f));
+		}
+		return blocks;
+	}
+
+	private static class Mover extends RichGameObject {
+
+		Mover(Vector2 position, CollisionHandler collisionHandler) {
+			super(position, collisionHandler, 16f, 16f);
+		}
+
+		void move(Vector2 newPosition) {
+			tryMove(newPosition);
+		}
+
+		@Override
+		public void render(SpriteBatch batch) {}
+
+		@Override
+		public void tick(float deltaTime) {}
+
+		@Override
+		public void dispose() {}
+
+	}
+
+}
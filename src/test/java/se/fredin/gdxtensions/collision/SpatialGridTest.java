@@ -0,0 +1,108 @@
+package se.fredin.gdxtensions.collision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Checks that the {@link SpatialGrid} answers queries exactly like a linear scan over the blocks
+ * @author Johan Fredin
+ *
+ */
+public class SpatialGridTest {
+
+	@Test
+	public void emptyGridFindsNothing() {
+		SpatialGrid grid = new SpatialGrid();
+		grid.build(new Array<Rectangle>());
+		assertEquals(-1, grid.firstOverlap(new Rectangle(0, 0, 10, 10)));
+		grid.build(null);
+		assertNull(grid.getOverlapping(new Rectangle(0, 0, 10, 10)));
+	}
+
+	@Test
+	public void firstOverlapMatchesLinearScan() {
+		Random random = new Random(7);
+		Array<Rectangle> blocks = new Array<Rectangle>();
+		for(int i = 0; i < 500; i++) {
+			blocks.add(new Rectangle(random.nextFloat() * 2000f - 200f, random.nextFloat() * 2000f - 200f, 
+									 4f + random.nextFloat() * 150f, 4f + random.nextFloat() * 150f));
+		}
+		SpatialGrid grid = new SpatialGrid(blocks, 64f);
+		Rectangle query = new Rectangle();
+		for(int i = 0; i < 5000; i++) {
+			query.set(random.nextFloat() * 2400f - 400f, random.nextFloat() * 2400f - 400f, 
+					  1f + random.nextFloat() * 100f, 1f + random.nextFloat() * 100f);
+			assertEquals("query " + query, linearFirstOverlap(blocks, query), grid.firstOverlap(query));
+		}
+	}
+
+	@Test
+	public void touchingEdgesDoNotOverlap() {
+		Array<Rectangle> blocks = new Array<Rectangle>();
+		blocks.add(new Rectangle(64, 0, 64, 64));
+		SpatialGrid grid = new SpatialGrid(blocks, 64f);
+		assertEquals(-1, grid.firstOverlap(new Rectangle(0, 0, 64, 64)));
+		assertEquals(0, grid.firstOverlap(new Rectangle(0, 0, 64.5f, 64)));
+	}
+
+	@Test
+	public void rebuildForgetsOldBlocks() {
+		Array<Rectangle> blocks = new Array<Rectangle>();
+		blocks.add(new Rectangle(0, 0, 32, 32));
+		SpatialGrid grid = new SpatialGrid(blocks, 64f);
+		Rectangle moved = new Rectangle(500, 500, 32, 32);
+		Array<Rectangle> newBlocks = new Array<Rectangle>();
+		newBlocks.add(moved);
+		grid.build(newBlocks);
+		assertNull(grid.getOverlapping(new Rectangle(8, 8, 8, 8)));
+		assertSame(moved, grid.getOverlapping(new Rectangle(508, 508, 8, 8)));
+	}
+
+	@Test
+	public void sweepStopsAtFirstBlock() {
+		Array<Rectangle> blocks = new Array<Rectangle>();
+		Rectangle far = new Rectangle(300, 0, 16, 16);
+		Rectangle near = new Rectangle(100, 0, 16, 16);
+		blocks.add(far);
+		blocks.add(near);
+		SpatialGrid grid = new SpatialGrid(blocks, 64f);
+		SweepResult result = new SweepResult();
+		grid.sweep(new Rectangle(0, 0, 10, 10), 400f, 0f, result);
+		assertTrue(result.isHit());
+		assertSame(near, result.getBlock());
+		assertEquals(90f / 400f, result.getTime(), 0.0001f);
+		assertEquals(-1f, result.getNormalX(), 0f);
+		assertEquals(0f, result.getNormalY(), 0f);
+	}
+
+	@Test
+	public void sweepMissesBlocksBesideThePath() {
+		Array<Rectangle> blocks = new Array<Rectangle>();
+		blocks.add(new Rectangle(100, 50, 16, 16));
+		SpatialGrid grid = new SpatialGrid(blocks, 64f);
+		SweepResult result = new SweepResult();
+		grid.sweep(new Rectangle(0, 0, 10, 10), 400f, 0f, result);
+		assertFalse(result.isHit());
+		assertEquals(1f, result.getTime(), 0f);
+	}
+
+	private static int linearFirstOverlap(Array<Rectangle> blocks, Rectangle bounds) {
+		for(int i = 0; i < blocks.size; i++) {
+			if(blocks.get(i).overlaps(bounds)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+}
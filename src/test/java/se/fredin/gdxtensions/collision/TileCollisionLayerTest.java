@@ -0,0 +1,35 @@
+package se.fredin.gdxtensions.collision;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import se.fredin.gdxtensions.collision.CollisionHandler.Filter;
+
+/**
+ * Checks that {@link TileCollisionLayer} only accepts blocks inside the layer.
+ * @author Johan Fredin
+ *
+ */
+public class TileCollisionLayerTest {
+
+	@Test
+	public void edgeTilesCanBeSet() {
+		TileCollisionLayer layer = new TileCollisionLayer(4, 3, 16f, 16f);
+		layer.setBlock(3, 2, Filter.HARD, true);
+		assertTrue(layer.isBlock(3, 2, Filter.HARD));
+		assertFalse(layer.isBlock(2, 2, Filter.HARD));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void columnPastTheWidthIsRejected() {
+		new TileCollisionLayer(4, 3, 16f, 16f).setBlock(4, 0, Filter.HARD, true);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeRowIsRejected() {
+		new TileCollisionLayer(4, 3, 16f, 16f).setBlock(0, -1, Filter.SOFT, true);
+	}
+
+}
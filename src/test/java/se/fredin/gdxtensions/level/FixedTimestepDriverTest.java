@@ -0,0 +1,127 @@
+package se.fredin.gdxtensions.level;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import se.fredin.gdxtensions.object.BasicGameObject;
+import se.fredin.gdxtensions.utils.ScreenType;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Checks the stepping, catch up cap and interpolated rendering of the {@link FixedTimestepDriver}
+ * @author Johan Fredin
+ *
+ */
+public class FixedTimestepDriverTest {
+
+	private static final float SPEED = 60f;
+
+	private Body body;
+	private TestLevel level;
+	private FixedTimestepDriver driver;
+
+	@Before
+	public void setUp() {
+		this.body = new Body();
+		this.level = new TestLevel(body);
+		this.driver = new FixedTimestepDriver(level, 60, 5);
+		Array<Body> bodies = new Array<Body>();
+		bodies.add(body);
+		driver.addInterpolated(bodies);
+	}
+
+	@Test
+	public void stepsAsManyTimesAsFit() {
+		assertEquals(0, driver.update(0.01f));
+		assertEquals(1, driver.update(0.01f));
+		assertEquals(2, driver.update(1f / 30f));
+		assertEquals(3, level.ticks);
+		assertEquals(3f, body.getPosition().x, 0.001f);
+	}
+
+	@Test
+	public void capsCatchUpSteps() {
+		assertEquals(5, driver.update(1f));
+		assertEquals(55, driver.getDroppedSteps());
+		assertEquals(0, driver.update(0f));
+	}
+
+	@Test
+	public void rendersInterpolatedPositionAndRestoresIt() {
+		driver.update(1f / 60f + 1f / 120f);
+		assertEquals(0.5f, driver.getAlpha(), 0.001f);
+		driver.render(null);
+		// Previous position 0, current 1, half way into the next step
+		assertEquals(0.5f, level.renderedX, 0.001f);
+		assertEquals(1f, body.getPosition().x, 0.001f);
+	}
+
+	@Test
+	public void resetStopsInterpolating() {
+		driver.update(1f / 60f + 1f / 120f);
+		driver.reset();
+		driver.render(null);
+		assertEquals(1f, level.renderedX, 0.001f);
+	}
+
+	private static class Body extends BasicGameObject {
+
+		Body() {
+			super(new Vector2(), null, 8f, 8f);
+			this.velocity.set(SPEED, 0f);
+		}
+
+		@Override
+		public void render(SpriteBatch batch) {}
+
+		@Override
+		public void tick(float deltaTime) {
+			setPosition(position.x + velocity.x * deltaTime, position.y);
+		}
+
+		@Override
+		public void dispose() {}
+
+	}
+
+	private static class TestLevel implements LevelBase {
+
+		private final Body body;
+		private int ticks;
+		private float renderedX;
+
+		TestLevel(Body body) {
+			this.body = body;
+		}
+
+		@Override
+		public void tick(float deltatime) {
+			ticks++;
+			body.tick(deltatime);
+		}
+
+		@Override
+		public void render(SpriteBatch batch) {
+			renderedX = body.getPosition().x;
+		}
+
+		@Override
+		public void switchLevel() {}
+
+		@Override
+		public void restart(boolean allowedToShowAdd) {}
+
+		@Override
+		public void end(ScreenType screenToGoTo, boolean allowedToShowAdd) {}
+
+		@Override
+		public void dispose() {}
+
+	}
+
+}
@@ -0,0 +1,68 @@
+package se.fredin.gdxtensions.object;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Checks which objects an {@link ActivationGrid} wakes and puts to sleep.
+ * @author Johan Fredin
+ *
+ */
+public class ActivationGridTest {
+
+	@Test
+	public void objectsWakeInsideTheRegionAndSleepOutsideIt() {
+		ActivationGrid activationGrid = new ActivationGrid(100f, 0f);
+		Body near = new Body(new Vector2(50f, 50f));
+		Body far = new Body(new Vector2(5000f, 50f));
+		activationGrid.add(near);
+		activationGrid.add(far);
+
+		activationGrid.update(new Rectangle(0f, 0f, 200f, 200f), 0.1f);
+		assertFalse(near.isSleeping());
+		assertTrue(far.isSleeping());
+
+		activationGrid.update(new Rectangle(4900f, 0f, 200f, 200f), 0.1f);
+		assertTrue(near.isSleeping());
+		assertFalse(far.isSleeping());
+	}
+
+	@Test
+	public void movedSleepingObjectWakesAtItsNewPosition() {
+		ActivationGrid activationGrid = new ActivationGrid(100f, 0f);
+		Body body = new Body(new Vector2(5000f, 50f));
+		activationGrid.add(body);
+		Rectangle region = new Rectangle(0f, 0f, 200f, 200f);
+		activationGrid.update(region, 0.1f);
+		assertTrue(body.isSleeping());
+
+		body.setPosition(50f, 50f);
+		activationGrid.moved(body);
+		activationGrid.update(region, 0.1f);
+		assertFalse(body.isSleeping());
+	}
+
+	private static class Body extends BasicGameObject {
+
+		Body(Vector2 position) {
+			super(position, null, 8f, 8f);
+		}
+
+		@Override
+		public void render(SpriteBatch batch) {}
+
+		@Override
+		public void tick(float deltaTime) {}
+
+		@Override
+		public void dispose() {}
+
+	}
+
+}
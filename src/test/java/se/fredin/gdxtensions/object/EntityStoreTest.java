@@ -0,0 +1,170 @@
+package se.fredin.gdxtensions.object;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Checks that the {@link EntityStore} keeps its arrays dense, its ids stable and its bound objects in sync
+ * @author Johan Fredin
+ *
+ */
+public class EntityStoreTest {
+
+	@Test
+	public void integrateMovesEveryEntity() {
+		EntityStore store = new EntityStore(2);
+		int a = store.create(0f, 0f, 8f, 8f);
+		int b = store.create(10f, 10f, 8f, 8f);
+		int c = store.create(20f, 20f, 8f, 8f);
+		store.setVelocity(a, 1f, 0f);
+		store.setVelocity(b, 0f, 2f);
+		store.setVelocity(c, -4f, -4f);
+		store.integrate(0.5f);
+		assertEquals(0.5f, store.getX(a), 0f);
+		assertEquals(11f, store.getY(b), 0f);
+		assertEquals(18f, store.getX(c), 0f);
+		assertEquals(18f, store.getY(c), 0f);
+	}
+
+	@Test
+	public void removeKeepsOtherIdsValid() {
+		EntityStore store = new EntityStore();
+		int a = store.create(1f, 0f, 8f, 8f);
+		int b = store.create(2f, 0f, 8f, 8f);
+		int c = store.create(3f, 0f, 8f, 8f);
+		store.remove(a);
+		assertEquals(2, store.size());
+		assertFalse(store.contains(a));
+		assertEquals(EntityStore.NO_ENTITY, store.indexOf(a));
+		assertEquals(2f, store.getX(b), 0f);
+		assertEquals(3f, store.getX(c), 0f);
+		// The last entity is moved into the hole
+		assertEquals(0, store.indexOf(c));
+		assertEquals(c, store.getIds()[0]);
+	}
+
+	@Test
+	public void removedIdsAreReused() {
+		EntityStore store = new EntityStore();
+		int a = store.create(0f, 0f, 8f, 8f);
+		store.create(0f, 0f, 8f, 8f);
+		store.remove(a);
+		int reused = store.create(5f, 5f, 8f, 8f);
+		assertEquals(a, reused);
+		assertEquals(5f, store.getX(reused), 0f);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void removingTwiceThrows() {
+		EntityStore store = new EntityStore();
+		int a = store.create(0f, 0f, 8f, 8f);
+		store.remove(a);
+		store.remove(a);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void removingUnknownIdThrows() {
+		new EntityStore().remove(EntityStore.NO_ENTITY);
+	}
+
+	@Test
+	public void boundObjectsFollowTheStore() {
+		EntityStore store = new EntityStore();
+		Body body = new Body(new Vector2(10f, 20f));
+		body.velocity.set(100f, 0f);
+		int id = store.add(body);
+		assertEquals(id, body.getEntityId());
+		assertSame(body, store.getObject(id));
+
+		assertTrue(body.isBound());
+		store.integrate(0.1f);
+		assertEquals(20f, body.getPosition().x, 0.0001f);
+		assertEquals(20f, body.getBounds().x, 0.0001f);
+
+		// Writes through the object land in the store
+		body.setVelocity(0f, -50f);
+		body.setPosition(30f, 20f);
+		assertEquals(30f, store.getX(id), 0f);
+		assertEquals(-50f, store.getVelocityY(id), 0f);
+		store.integrate(0.2f);
+		assertEquals(10f, body.getPosition().y, 0.0001f);
+		assertEquals(10f, body.getBounds().y, 0.0001f);
+
+		Array<BasicGameObject> overlapping = new Array<BasicGameObject>();
+		assertEquals(1, store.getObjectsOverlapping(new Rectangle(25f, 5f, 10f, 10f), overlapping));
+		assertSame(body, overlapping.first());
+		assertEquals(0, store.getObjectsOverlapping(new Rectangle(100f, 100f, 10f, 10f), overlapping));
+
+		store.remove(body);
+		assertEquals(EntityStore.NO_ENTITY, body.getEntityId());
+		assertFalse(body.isBound());
+		assertEquals(0, store.size());
+		// The object keeps the last state of its entity
+		assertEquals(30f, body.getPosition().x, 0.0001f);
+		assertEquals(10f, body.getPosition().y, 0.0001f);
+		assertEquals(-50f, body.getVelocity().y, 0f);
+	}
+
+	@Test
+	public void removingMovedEntityUnbindsTheRightObject() {
+		EntityStore store = new EntityStore();
+		Body first = new Body(new Vector2(1f, 0f));
+		Body second = new Body(new Vector2(2f, 0f));
+		store.add(first);
+		int secondId = store.add(second);
+		store.remove(first);
+		assertTrue(second.isBound());
+		assertEquals(secondId, second.getEntityId());
+		assertEquals(2f, second.getPosition().x, 0f);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void addingBoundObjectThrows() {
+		EntityStore store = new EntityStore();
+		Body body = new Body(new Vector2());
+		store.add(body);
+		store.add(body);
+	}
+
+	@Test
+	public void clearUnbindsEverything() {
+		EntityStore store = new EntityStore();
+		Body body = new Body(new Vector2());
+		int id = store.add(body);
+		store.create(0f, 0f, 1f, 1f);
+		store.clear();
+		assertEquals(0, store.size());
+		assertFalse(store.contains(id));
+		assertEquals(EntityStore.NO_ENTITY, body.getEntityId());
+		assertTrue(store.create(0f, 0f, 1f, 1f) >= 0);
+		assertNull(store.getObject(store.getIds()[0]));
+	}
+
+	private static class Body extends BasicGameObject {
+
+		Body(Vector2 position) {
+			super(position, null, 8f, 8f);
+		}
+
+		@Override
+		public void render(SpriteBatch batch) {}
+
+		@Override
+		public void tick(float deltaTime) {}
+
+		@Override
+		public void dispose() {}
+
+	}
+
+}
@@ -0,0 +1,200 @@
+package se.fredin.gdxtensions.object;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import se.fredin.gdxtensions.collision.CollisionHandler;
+import se.fredin.gdxtensions.collision.CollisionHandler.Filter;
+import se.fredin.gdxtensions.collision.TileCollisionLayer;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Checks that resolving the movement of a {@link RichGameObject} does not allocate, measured with the 
+ * allocated bytes counter of the current thread. Both a small tile level and a level of rectangular hard and 
+ * soft blocks indexed by {@link se.fredin.gdxtensions.collision.SpatialGrid}s are measured.
+ * @author Johan Fredin
+ *
+ */
+public class RichGameObjectAllocationTest {
+
+	private static final int MOVES = 20000;
+	private static final int WARMUP_ROUNDS = 3;
+	private static final float TILE_SIZE = 16f;
+
+	private com.sun.management.ThreadMXBean threadBean;
+	private Mover tileMover;
+	private Mover blockMover;
+
+	@Before
+	public void setUp() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		this.threadBean = (com.sun.management.ThreadMXBean) bean;
+		assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+
+		// A floor along the bottom and a wall on the right
+		TileCollisionLayer layer = new TileCollisionLayer(32, 16, TILE_SIZE, TILE_SIZE);
+		for(int x = 0; x < 32; x++) {
+			layer.setBlock(x, 0, Filter.HARD, true);
+		}
+		for(int y = 0; y < 16; y++) {
+			layer.setBlock(31, y, Filter.HARD, true);
+		}
+		CollisionHandler tileHandler = new CollisionHandler();
+		tileHandler.setHardBlocks(new Array<Rectangle>());
+		tileHandler.setSoftBlocks(new Array<Rectangle>());
+		tileHandler.setTileCollisionLayer(layer);
+		this.tileMover = new Mover(new Vector2(32f, 48f), tileHandler);
+
+		// The same level out of rectangles and no tile layer, plus a few soft platforms the walking mover lands on
+		Array<Rectangle> hardBlocks = new Array<Rectangle>();
+		for(int x = 0; x < 32; x++) {
+			hardBlocks.add(new Rectangle(x * TILE_SIZE, 0f, TILE_SIZE, TILE_SIZE));
+		}
+		for(int y = 1; y < 16; y++) {
+			hardBlocks.add(new Rectangle(31 * TILE_SIZE, y * TILE_SIZE, TILE_SIZE, TILE_SIZE));
+		}
+		Array<Rectangle> softBlocks = new Array<Rectangle>();
+		for(int x = 3; x < 28; x += 6) {
+			softBlocks.add(new Rectangle(x * TILE_SIZE, 2 * TILE_SIZE - 4f, 3 * TILE_SIZE, 4f));
+		}
+		CollisionHandler blockHandler = new CollisionHandler();
+		blockHandler.setHardBlocks(hardBlocks);
+		blockHandler.setSoftBlocks(softBlocks);
+		this.blockMover = new Mover(new Vector2(32f, 48f), blockHandler);
+	}
+
+	@Test
+	public void tryMoveDoesNotAllocate() {
+		assertTryMovesDoNotAllocate(tileMover);
+	}
+
+	@Test
+	public void resolveRequestedMoveDoesNotAllocate() {
+		assertRequestedMovesDoNotAllocate(tileMover);
+	}
+
+	@Test
+	public void tryMoveAgainstBlocksDoesNotAllocate() {
+		assertTryMovesDoNotAllocate(blockMover);
+	}
+
+	@Test
+	public void resolveRequestedMoveAgainstBlocksDoesNotAllocate() {
+		assertRequestedMovesDoNotAllocate(blockMover);
+	}
+
+	@Test
+	public void moverLandsOnFloor() {
+		assertLandsOnFloor(tileMover);
+		assertLandsOnFloor(blockMover);
+	}
+
+	@Test
+	public void moverLandsOnSoftPlatform() {
+		Vector2 newPosition = new Vector2();
+		for(int i = 0; i < 20; i++) {
+			newPosition.set(blockMover.getPosition().x + 1f, blockMover.getPosition().y - 2f);
+			blockMover.move(newPosition);
+		}
+		assertEquals(2 * TILE_SIZE, blockMover.getPosition().y, 0.001f);
+		assertTrue(blockMover.isOnGround());
+	}
+
+	private void assertTryMovesDoNotAllocate(Mover mover) {
+		Vector2 newPosition = new Vector2();
+		// Warm up so class loading, lazily created scratch objects and the JIT are not counted
+		for(int i = 0; i < WARMUP_ROUNDS; i++) {
+			tryMoves(mover, newPosition);
+		}
+		long before = allocatedBytes();
+		tryMoves(mover, newPosition);
+		long allocated = allocatedBytes() - before;
+		assertEquals("bytes allocated by " + MOVES + " moves", 0L, allocated);
+	}
+
+	private void assertRequestedMovesDoNotAllocate(Mover mover) {
+		for(int i = 0; i < WARMUP_ROUNDS; i++) {
+			resolveRequestedMoves(mover);
+		}
+		long before = allocatedBytes();
+		resolveRequestedMoves(mover);
+		long allocated = allocatedBytes() - before;
+		assertEquals("bytes allocated by " + MOVES + " requested moves", 0L, allocated);
+	}
+
+	private void assertLandsOnFloor(Mover mover) {
+		Vector2 newPosition = new Vector2();
+		for(int i = 0; i < 100; i++) {
+			newPosition.set(mover.getPosition().x, mover.getPosition().y - 4f);
+			mover.move(newPosition);
+		}
+		assertEquals(TILE_SIZE, mover.getPosition().y, 0.001f);
+		assertTrue(mover.isOnGround());
+	}
+
+	private void tryMoves(Mover mover, Vector2 newPosition) {
+		for(int i = 0; i < MOVES; i++) {
+			newPosition.set(mover.getPosition().x + 1f, mover.getPosition().y - 2f);
+			mover.move(newPosition);
+			wrap(mover);
+		}
+	}
+
+	private void resolveRequestedMoves(Mover mover) {
+		for(int i = 0; i < MOVES; i++) {
+			mover.requestMove(mover.getPosition().x + 1f, mover.getPosition().y - 2f);
+			mover.resolveRequestedMove();
+			mover.finishRequestedMove();
+			wrap(mover);
+		}
+	}
+
+	/** Starts over from the left once the mover has walked into the wall */
+	private void wrap(Mover mover) {
+		if(mover.getPosition().x > 28 * TILE_SIZE) {
+			mover.setPosition(32f, 48f);
+		}
+	}
+
+	private long allocatedBytes() {
+		return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static class Mover extends RichGameObject {
+
+		Mover(Vector2 position, CollisionHandler collisionHandler) {
+			super(position, collisionHandler, TILE_SIZE, TILE_SIZE);
+		}
+
+		void move(Vector2 newPosition) {
+			tryMove(newPosition);
+		}
+
+		boolean isOnGround() {
+			return onGround;
+		}
+
+		@Override
+		public void render(SpriteBatch batch) {}
+
+		@Override
+		public void tick(float deltaTime) {}
+
+		@Override
+		public void dispose() {}
+
+	}
+
+}
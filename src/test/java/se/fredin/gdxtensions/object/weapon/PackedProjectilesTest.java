@@ -0,0 +1,127 @@
+package se.fredin.gdxtensions.object.weapon;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import se.fredin.gdxtensions.collision.CollisionHandler;
+import se.fredin.gdxtensions.collision.CollisionHandler.Filter;
+import se.fredin.gdxtensions.collision.TileCollisionLayer;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Checks how {@link PackedProjectiles} moves and retires its bullets.
+ * @author Johan Fredin
+ *
+ */
+public class PackedProjectilesTest {
+
+	private static final float EPSILON = 0.0001f;
+
+	@Test
+	public void bulletsMoveByTheirVelocity() {
+		PackedProjectiles bullets = new PackedProjectiles(4);
+		bullets.add(0f, 0f, 100f, -50f, 2f, 2f, 0);
+		assertEquals(0, bullets.update(0.5f));
+		assertEquals(50f, bullets.getXs()[0], EPSILON);
+		assertEquals(-25f, bullets.getYs()[0], EPSILON);
+		assertEquals(0.5f, bullets.getAges()[0], EPSILON);
+	}
+
+	@Test
+	public void bulletsOutOfTimeAreRetired() {
+		PackedProjectiles bullets = new PackedProjectiles(4);
+		bullets.setMaxLifetime(1f);
+		bullets.add(0f, 0f, 10f, 0f, 2f, 2f, 0);
+		assertEquals(0, bullets.update(0.6f));
+		bullets.add(0f, 0f, 10f, 0f, 2f, 2f, 0);
+		assertEquals(1, bullets.update(0.6f));
+		assertEquals(1, bullets.size());
+		assertEquals(0.6f, bullets.getAges()[0], EPSILON);
+	}
+
+	@Test
+	public void bulletsOutOfRangeAreRetired() {
+		PackedProjectiles bullets = new PackedProjectiles(4);
+		bullets.setMaxDistance(100f);
+		bullets.add(0f, 0f, 300f, 400f, 2f, 2f, 0);
+		bullets.add(0f, 0f, 30f, 40f, 2f, 2f, 0);
+		// The fast bullet has flown 500 pixels after one second, the slow one 50
+		assertEquals(1, bullets.update(1f));
+		assertEquals(1, bullets.size());
+		assertEquals(30f, bullets.getVelocityXs()[0], EPSILON);
+	}
+
+	@Test
+	public void bulletsOutsideTheCullBoundsAreRetired() {
+		PackedProjectiles bullets = new PackedProjectiles(4);
+		bullets.setCullBounds(0f, 0f, 100f, 100f);
+		bullets.add(50f, 50f, 0f, 0f, 2f, 2f, 0);
+		bullets.add(-10f, 50f, 0f, 0f, 2f, 2f, 0);
+		bullets.add(50f, 101f, 0f, 0f, 2f, 2f, 0);
+		// Overlapping the edge still counts as inside
+		bullets.add(-1f, 50f, 0f, 0f, 2f, 2f, 0);
+		assertEquals(2, bullets.update(0.1f));
+		assertEquals(2, bullets.size());
+
+		bullets.clearCullBounds();
+		bullets.add(-1000f, -1000f, 0f, 0f, 2f, 2f, 0);
+		assertEquals(0, bullets.update(0.1f));
+	}
+
+	@Test
+	public void retiringKeepsTheStateOfTheMovedBullet() {
+		PackedProjectiles bullets = new PackedProjectiles(4);
+		bullets.setMaxLifetime(1f);
+		bullets.add(0f, 0f, 1f, 0f, 2f, 2f, 0);
+		bullets.update(0.8f);
+		bullets.add(10f, 0f, 2f, 0f, 3f, 3f, 1);
+		bullets.update(0.1f);
+		bullets.add(20f, 0f, 3f, 0f, 4f, 4f, 2);
+		// The first bullet dies and the last one takes its place
+		assertEquals(1, bullets.update(0.2f));
+		assertEquals(2, bullets.size());
+		assertEquals(20f + 3f * 0.2f, bullets.getXs()[0], EPSILON);
+		assertEquals(3f, bullets.getVelocityXs()[0], EPSILON);
+		assertEquals(2, bullets.getRegionIndices()[0]);
+		assertEquals(0.2f, bullets.getAges()[0], EPSILON);
+		assertEquals(0.3f, bullets.getAges()[1], EPSILON);
+	}
+
+	@Test
+	public void bulletsGrowPastTheirCapacity() {
+		PackedProjectiles bullets = new PackedProjectiles(2);
+		for(int i = 0; i < 10; i++) {
+			bullets.add(i, 0f, 0f, 0f, 2f, 2f, 0);
+		}
+		assertEquals(10, bullets.size());
+		assertEquals(9f, bullets.getXs()[9], EPSILON);
+		bullets.clear();
+		assertEquals(0, bullets.size());
+	}
+
+	@Test
+	public void bulletsHittingHardBlocksAreRetired() {
+		TileCollisionLayer layer = new TileCollisionLayer(8, 8, 16f, 16f);
+		layer.setBlock(4, 0, Filter.HARD, true);
+		CollisionHandler collisionHandler = new CollisionHandler();
+		collisionHandler.setHardBlocks(new Array<Rectangle>());
+		collisionHandler.setSoftBlocks(new Array<Rectangle>());
+		collisionHandler.setTileCollisionLayer(layer);
+
+		for(int swept = 0; swept < 2; swept++) {
+			PackedProjectiles bullets = new PackedProjectiles(4);
+			bullets.setCollisionHandler(collisionHandler);
+			bullets.setSweptCollision(swept == 1);
+			bullets.add(40f, 4f, 100f, 0f, 2f, 2f, 0);
+			bullets.add(40f, 40f, 100f, 0f, 2f, 2f, 0);
+			assertEquals(1, bullets.update(0.25f));
+			assertEquals(1, bullets.size());
+			assertEquals(65f, bullets.getXs()[0], EPSILON);
+			assertEquals(40f, bullets.getYs()[0], EPSILON);
+		}
+	}
+
+}
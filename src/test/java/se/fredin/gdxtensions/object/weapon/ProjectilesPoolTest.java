@@ -0,0 +1,104 @@
+package se.fredin.gdxtensions.object.weapon;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import se.fredin.gdxtensions.object.weapon.automatic.Rifle;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Checks the usage stats of {@link ProjectilesPool}, also when a {@link Weapon} swaps pools.
+ * @author Johan Fredin
+ *
+ */
+public class ProjectilesPoolTest {
+
+	@Test
+	public void countsObtainsFreesAndMisses() {
+		ProjectilesPool pool = new ProjectilesPool(4, 16);
+		pool.prewarm(2);
+		assertEquals(2, pool.getFree());
+
+		Projectile first = pool.obtain();
+		Projectile second = pool.obtain();
+		Projectile third = pool.obtain();
+		assertEquals(3, pool.getObtainCount());
+		assertEquals(1, pool.getMisses());
+		assertEquals(3, pool.getInUse());
+		assertEquals(3, pool.getPeakInUse());
+
+		pool.free(first);
+		assertEquals(1, pool.getFreeCount());
+		assertEquals(2, pool.getInUse());
+		assertEquals(3, pool.getPeakInUse());
+
+		Array<Projectile> projectiles = new Array<Projectile>();
+		projectiles.add(second);
+		projectiles.add(third);
+		pool.freeAll(projectiles);
+		assertEquals(3, pool.getFreeCount());
+		assertEquals(0, pool.getInUse());
+	}
+
+	@Test
+	public void prewarmIsCappedToMax() {
+		ProjectilesPool pool = new ProjectilesPool(4, 8);
+		pool.prewarm(100);
+		assertEquals(8, pool.getFree());
+		assertEquals(0, pool.getMisses());
+	}
+
+	@Test
+	public void freeAllSkipsNullEntries() {
+		ProjectilesPool pool = new ProjectilesPool(4, 16);
+		Array<Projectile> projectiles = new Array<Projectile>();
+		projectiles.add(pool.obtain());
+		projectiles.add(null);
+		projectiles.add(pool.obtain());
+		projectiles.add(null);
+		pool.freeAll(projectiles);
+		assertEquals(2, pool.getFreeCount());
+		assertEquals(0, pool.getInUse());
+		assertEquals(2, pool.getFree());
+	}
+
+	@Test
+	public void swappingPoolsFreesLiveProjectilesToTheOldPool() {
+		Rifle rifle = new Rifle();
+		ProjectilesPool oldPool = rifle.getProjectilesPool();
+		rifle.populateProjectilesArray(5);
+		assertEquals(5, oldPool.getInUse());
+
+		ProjectilesPool newPool = new ProjectilesPool(4, 16);
+		rifle.setProjectilesPool(newPool);
+		assertEquals(0, oldPool.getInUse());
+		assertEquals(5, oldPool.getFreeCount());
+		assertEquals(0, newPool.getInUse());
+		assertEquals(0, rifle.getActiveProjectileCount());
+
+		rifle.populateProjectilesArray(2);
+		rifle.setProjectilesPool(newPool);
+		assertEquals(2, newPool.getInUse());
+		assertEquals(2, rifle.getActiveProjectileCount());
+	}
+
+	@Test
+	public void reusedProjectilesDoNotInterpolateFromTheirLastLife() {
+		ProjectilesPool pool = new ProjectilesPool(4, 16);
+		Projectile projectile = pool.obtain();
+		Projectile template = new Projectile(new Vector2(50f, 60f), null, 2f, 2f, 0f, new TextureRegion());
+		new Rifle().transferValuesFrom(projectile, template);
+		assertEquals(50f, projectile.getInterpolatedX(0f), 0.0001f);
+		assertEquals(60f, projectile.getInterpolatedY(0f), 0.0001f);
+
+		projectile.setPosition(120f, 60f);
+		pool.free(projectile);
+		assertEquals(0f, projectile.getInterpolatedX(0f), 0.0001f);
+		assertEquals(0f, projectile.getInterpolatedY(0f), 0.0001f);
+	}
+
+}
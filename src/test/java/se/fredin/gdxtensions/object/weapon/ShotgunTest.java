@@ -0,0 +1,136 @@
+package se.fredin.gdxtensions.object.weapon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import se.fredin.gdxtensions.collision.CollisionHandler;
+import se.fredin.gdxtensions.object.weapon.Shotgun.SpreadMode;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Checks the precomputed spread tables of {@link Shotgun} and that a shot fires all of its pellets.
+ * @author Johan Fredin
+ *
+ */
+public class ShotgunTest {
+
+	private static final float EPSILON = 0.0001f;
+
+	@Test
+	public void spreadTablesAreSymmetricUnitDirections() {
+		for(SpreadMode mode : SpreadMode.values()) {
+			int amount = mode.getAmount();
+			int middle = amount / 2;
+			assertEquals(mode + " middle x", 1f, mode.getDirectionX(middle), EPSILON);
+			assertEquals(mode + " middle y", 0f, mode.getDirectionY(middle), EPSILON);
+			for(int i = 0; i < amount; i++) {
+				float x = mode.getDirectionX(i), y = mode.getDirectionY(i);
+				assertEquals(mode + " length of pellet " + i, 1f, x * x + y * y, EPSILON);
+				assertEquals(mode + " mirrored x of pellet " + i, x, mode.getDirectionX(amount - 1 - i), EPSILON);
+				assertEquals(mode + " mirrored y of pellet " + i, -y, mode.getDirectionY(amount - 1 - i), EPSILON);
+			}
+		}
+	}
+
+	@Test
+	public void outermostPelletsAreHalfTheSpreadOff() {
+		for(SpreadMode mode : SpreadMode.values()) {
+			int last = mode.getAmount() - 1;
+			float first = (float) Math.toDegrees(Math.atan2(mode.getDirectionY(0), mode.getDirectionX(0)));
+			float end = (float) Math.toDegrees(Math.atan2(mode.getDirectionY(last), mode.getDirectionX(last)));
+			assertEquals(mode + " first pellet", -mode.getSpreadDegrees() / 2f, first, 0.01f);
+			assertEquals(mode + " last pellet", mode.getSpreadDegrees() / 2f, end, 0.01f);
+		}
+	}
+
+	@Test
+	public void shotFiresEveryPellet() {
+		Shotgun shotgun = new Shotgun(FiringMode.SEMI, SpreadMode.FIVE_SPREAD);
+		shotgun.setUnlimitedAmmo(true);
+		shotgun.setTimer(shotgun.getShootingInterval());
+		assertTrue(shotgun.shoot(0f, 0f, 100f, 0f, 2f, 2f, 0));
+
+		PackedProjectiles pellets = shotgun.getPackedProjectiles();
+		assertEquals(5, pellets.size());
+		assertEquals(5, shotgun.getActiveProjectileCount());
+		float[] velocityXs = pellets.getVelocityXs(), velocityYs = pellets.getVelocityYs();
+		for(int i = 0; i < 5; i++) {
+			assertEquals(100f * SpreadMode.FIVE_SPREAD.getDirectionX(i), velocityXs[i], EPSILON);
+			assertEquals(100f * SpreadMode.FIVE_SPREAD.getDirectionY(i), velocityYs[i], EPSILON);
+		}
+	}
+
+	@Test
+	public void shotIsRefusedWithoutRoomForAllPellets() {
+		Shotgun shotgun = new Shotgun(FiringMode.SEMI, SpreadMode.SEVEN_SPREAD) {
+			{
+				maxCapacity = 10;
+			}
+		};
+		shotgun.setUnlimitedAmmo(true);
+		shotgun.setTimer(shotgun.getShootingInterval());
+		assertTrue(shotgun.shoot(0f, 0f, 100f, 0f, 2f, 2f, 0));
+		assertFalse(shotgun.canShoot());
+		assertFalse(shotgun.shoot(0f, 0f, 100f, 0f, 2f, 2f, 0));
+		assertEquals(7, shotgun.getActiveProjectileCount());
+	}
+
+	@Test
+	public void angleRotatesTheWholeSpread() {
+		Shotgun shotgun = new Shotgun(FiringMode.SEMI, SpreadMode.TRIPPLE);
+		shotgun.setUnlimitedAmmo(true);
+		shotgun.setTimer(shotgun.getShootingInterval());
+		Projectile projectile = new Projectile(new Vector2(), null, 2f, 2f, 0f, new TextureRegion());
+		projectile.setVelocity(100f, 0f);
+		shotgun.shoot(projectile, 90f);
+
+		PackedProjectiles pellets = shotgun.getPackedProjectiles();
+		assertEquals(3, pellets.size());
+		// The middle pellet goes straight up, the outer ones 10 degrees off either side
+		assertEquals(0f, pellets.getVelocityXs()[1], 0.1f);
+		assertEquals(100f, pellets.getVelocityYs()[1], 0.1f);
+		assertEquals(-100f * (float) Math.sin(Math.toRadians(-10)), pellets.getVelocityXs()[0], 0.1f);
+		assertEquals(100f * (float) Math.cos(Math.toRadians(-10)), pellets.getVelocityYs()[0], 0.1f);
+	}
+
+	@Test
+	public void templateShotIsRefusedWhenTheWeaponCanNotShoot() {
+		Shotgun shotgun = new Shotgun(FiringMode.SEMI, SpreadMode.TRIPPLE);
+		Projectile projectile = new Projectile(new Vector2(), null, 2f, 2f, 0f, new TextureRegion());
+		projectile.setVelocity(100f, 0f);
+		shotgun.shoot(projectile);
+		assertEquals(0, shotgun.getPackedProjectiles().size());
+	}
+
+	@Test
+	public void templateSetsSweepingButNotTheCollisionHandler() {
+		Shotgun shotgun = new Shotgun(FiringMode.SEMI, SpreadMode.TRIPPLE);
+		shotgun.setUnlimitedAmmo(true);
+		shotgun.setTimer(shotgun.getShootingInterval());
+		Projectile projectile = new Projectile(new Vector2(), new CollisionHandler(), 2f, 2f, 0f, new TextureRegion());
+		projectile.setVelocity(100f, 0f);
+		projectile.setSweptCollision(true);
+		shotgun.shoot(projectile);
+
+		PackedProjectiles pellets = shotgun.getPackedProjectiles();
+		assertEquals(3, pellets.size());
+		assertTrue(pellets.isSweptCollision());
+		assertNull(pellets.getCollisionHandler());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void projectileWithoutTextureIsRejected() {
+		Shotgun shotgun = new Shotgun(FiringMode.SEMI);
+		shotgun.setUnlimitedAmmo(true);
+		shotgun.setTimer(shotgun.getShootingInterval());
+		Projectile projectile = new Projectile(new Vector2(), null, 2f, 2f, 0f, null);
+		shotgun.shoot(projectile);
+	}
+
+}